@@ -0,0 +1,75 @@
+package benchmarks;
+
+import Graph.CsrGraph;
+import Graph.Edge;
+import Graph.RootedTree;
+import Graph.TreeStatistics;
+import Graph.TreeStatisticsKernel;
+import RandomTreeAlgos.TreeSampler;
+import RandomTreeAlgos.WilsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to analyse one uniform spanning tree of each family: building a RootedTree
+ * from its edges, as Main does, or running the statistics kernel on its parent array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AnalysisBenchmark {
+
+    @Param({"GRID", "COMPLETE", "ERDOS_RENYI", "LOLLIPOP"})
+    public GraphFamily family;
+
+    @Param({"128", "512", "1024"})
+    public int order;
+
+    private CsrGraph graph;
+    private int[] parent;
+    private int root;
+    private int[] treeEdges;
+    private ArrayList<Edge> treeEdgeList;
+    private final TreeStatisticsKernel kernel = new TreeStatisticsKernel();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = CsrGraph.fromGraph(family.build(order, BenchmarkMain.SEED));
+        parent = new int[graph.upperBound()];
+        int[] parentEdge = new int[graph.upperBound()];
+        root = new WilsonGenerator(BenchmarkMain.SEED).sampleTree(graph, parent, parentEdge);
+        treeEdges = TreeSampler.treeEdgeIds(parentEdge, graph.upperBound());
+        treeEdgeList = graph.toEdgeList(treeEdges);
+    }
+
+    @Benchmark
+    public RootedTree rootedTreeFromEdges() {
+        return new RootedTree(treeEdgeList, 0);
+    }
+
+    @Benchmark
+    public RootedTree rootedTreeFromEdgeIds() {
+        return new RootedTree(graph, treeEdges, 0);
+    }
+
+    @Benchmark
+    public TreeStatistics statisticsKernel() {
+        return kernel.compute(parent, root, graph.upperBound());
+    }
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, adding the GC profiler
+ * so that every result comes with its allocation rate (gc.alloc.rate.norm: bytes per operation).
+ * Examples:
+ *   java -jar target/benchmarks.jar SamplingBenchmark -p family=GRID -p order=100000
+ *   java -jar target/benchmarks.jar AnalysisBenchmark -rf json -rff analysis.json
+ *   java -jar target/benchmarks.jar -l
+ */
+public class BenchmarkMain {
+
+    // seed of the random graphs and generators, so that runs are comparable
+    static final long SEED = 20250101L;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        // -h, -l, -lp, -lprof and -lrf only print: JMH's own launcher handles them
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import Generators.RandomKeyMSTSampler;
+import Generators.RandomMSTGenerator;
+import Graph.CsrGraph;
+import MSTAlgorithms.KruskalMSTAlgorithm;
+import RandomTreeAlgos.AldousBroderGenerator;
+import RandomTreeAlgos.FlipSampler;
+import RandomTreeAlgos.RandomContractionGenerator;
+import RandomTreeAlgos.RandomInsertionGenerator;
+import RandomTreeAlgos.RandomTraversalGenerator;
+import RandomTreeAlgos.TreeSampler;
+import RandomTreeAlgos.WilsonGenerator;
+import Utilities.RandomWeightAssigner;
+
+/**
+ * The spanning tree generators, each drawing one tree per call of sample.
+ * Generators go through their TreeSampler interface, so that the buffers are
+ * reused from one sample to the next.
+ */
+public enum Generator {
+    ALDOUS_BRODER {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new AldousBroderGenerator(seed));
+        }
+    },
+    WILSON {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new WilsonGenerator(seed));
+        }
+    },
+    RANDOM_TRAVERSAL {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new RandomTraversalGenerator(seed));
+        }
+    },
+    RANDOM_INSERTION {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new RandomInsertionGenerator(seed));
+        }
+    },
+    RANDOM_CONTRACTION {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new RandomContractionGenerator(seed));
+        }
+    },
+    // one sample is order flips of the chain, each an O(1) step of its root's random walk;
+    // a tree close to independent of the previous one needs about a cover time of flips
+    FLIPPER {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new FlipSampler(graph.order(), seed));
+        }
+    },
+    RANDOM_MST_KRUSKAL {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new RandomMSTGenerator(new KruskalMSTAlgorithm(), new RandomWeightAssigner(seed)));
+        }
+    },
+    // RandomKeyMSTSampler: random 64-bit keys, radix sort and union-find, without writing weights
+    RANDOM_MST_RADIX {
+        @Override
+        Sampler create(CsrGraph graph, long seed) {
+            return of(graph, new RandomKeyMSTSampler(seed));
+        }
+    };
+
+    interface Sampler {
+        /**
+         * Draws one tree.
+         * @return a value depending on the tree, for the blackhole
+         */
+        int sample(int[] parent, int[] parentEdge);
+    }
+
+    abstract Sampler create(CsrGraph graph, long seed);
+
+    private static Sampler of(CsrGraph graph, TreeSampler sampler) {
+        return (parent, parentEdge) -> sampler.sampleTree(graph, parent, parentEdge);
+    }
+}
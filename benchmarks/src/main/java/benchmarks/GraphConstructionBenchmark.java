@@ -0,0 +1,54 @@
+package benchmarks;
+
+import Graph.CsrGraph;
+import Graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build the graphs of each family, and to convert them to CSR form
+ * as the generators do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class GraphConstructionBenchmark {
+
+    @Param({"GRID", "COMPLETE", "ERDOS_RENYI", "LOLLIPOP"})
+    public GraphFamily family;
+
+    @Param({"128", "512", "1024"})
+    public int order;
+
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = family.build(order, BenchmarkMain.SEED);
+    }
+
+    @Benchmark
+    public Graph build() {
+        return family.build(order, BenchmarkMain.SEED);
+    }
+
+    @Benchmark
+    public CsrGraph toCsr() {
+        return CsrGraph.fromGraph(graph);
+    }
+}
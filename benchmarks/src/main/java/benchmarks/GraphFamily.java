@@ -0,0 +1,52 @@
+package benchmarks;
+
+import Graph.Edge;
+import Graph.EdgeTable;
+import Graph.Graph;
+import GraphClasses.Complete;
+import GraphClasses.ErdosRenyi;
+import GraphClasses.Grid;
+import GraphClasses.Lollipop;
+
+import java.util.Random;
+
+/**
+ * The graph families of GraphClasses, built with about order vertices.
+ */
+public enum GraphFamily {
+    // square grid, of side round(sqrt(order))
+    GRID {
+        @Override
+        Graph build(int order, long seed) {
+            int side = (int) Math.round(Math.sqrt(order));
+            return new Grid(side, side).graph;
+        }
+    },
+    COMPLETE {
+        @Override
+        Graph build(int order, long seed) {
+            return new Complete(order).graph;
+        }
+    },
+    // connected G(n,p) of average degree 2 ln(n), sampled from the seed
+    ERDOS_RENYI {
+        @Override
+        Graph build(int order, long seed) {
+            double edgeProbability = 2 * Math.log(order) / (order - 1);
+            EdgeTable edges = ErdosRenyi.sampleConnected(order, edgeProbability, seed);
+            Graph graph = new Graph(order);
+            for (int e = 0; e < edges.size(); e++)
+                graph.addEdge(new Edge(edges.source[e], edges.dest[e], 0));
+            return graph;
+        }
+    },
+    // vertices shuffled from the seed
+    LOLLIPOP {
+        @Override
+        Graph build(int order, long seed) {
+            return new Lollipop(order, new Random(seed)).graph;
+        }
+    };
+
+    abstract Graph build(int order, long seed);
+}
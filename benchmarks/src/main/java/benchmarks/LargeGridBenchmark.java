@@ -0,0 +1,55 @@
+package benchmarks;
+
+import Graph.CsrGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SamplingBenchmark on grids of 10^5 and 10^6 vertices, where caches and the
+ * allocation rate matter. The other families stay out: the complete graph and
+ * the lollipop have about order^2/2 edges, far too many at these sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class LargeGridBenchmark {
+
+    @Param({"ALDOUS_BRODER", "WILSON", "RANDOM_TRAVERSAL", "RANDOM_INSERTION",
+            "RANDOM_CONTRACTION", "FLIPPER", "RANDOM_MST_KRUSKAL", "RANDOM_MST_RADIX"})
+    public Generator generator;
+
+    @Param({"100000", "1000000"})
+    public int order;
+
+    private Generator.Sampler sampler;
+    private int[] parent;
+    private int[] parentEdge;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = CsrGraph.fromGraph(GraphFamily.GRID.build(order, BenchmarkMain.SEED));
+        sampler = generator.create(graph, BenchmarkMain.SEED);
+        parent = new int[graph.upperBound()];
+        parentEdge = new int[graph.upperBound()];
+    }
+
+    @Benchmark
+    public int sample() {
+        return sampler.sample(parent, parentEdge);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import Graph.CsrGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to draw one spanning tree, for every generator, graph family and size.
+ * The graph is built once per trial; only sampling is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SamplingBenchmark {
+
+    @Param({"ALDOUS_BRODER", "WILSON", "RANDOM_TRAVERSAL", "RANDOM_INSERTION",
+            "RANDOM_CONTRACTION", "FLIPPER", "RANDOM_MST_KRUSKAL", "RANDOM_MST_RADIX"})
+    public Generator generator;
+
+    @Param({"GRID", "COMPLETE", "ERDOS_RENYI", "LOLLIPOP"})
+    public GraphFamily family;
+
+    @Param({"128", "512", "1024"})
+    public int order;
+
+    private Generator.Sampler sampler;
+    private int[] parent;
+    private int[] parentEdge;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = CsrGraph.fromGraph(family.build(order, BenchmarkMain.SEED));
+        sampler = generator.create(graph, BenchmarkMain.SEED);
+        parent = new int[graph.upperBound()];
+        parentEdge = new int[graph.upperBound()];
+    }
+
+    @Benchmark
+    public int sample() {
+        return sampler.sample(parent, parentEdge);
+    }
+}
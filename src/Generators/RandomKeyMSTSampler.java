@@ -0,0 +1,119 @@
+package Generators;
+
+import Graph.IAdjacency;
+import RandomTreeAlgos.TreeOrienter;
+import RandomTreeAlgos.TreeSampler;
+import Utilities.RadixSort;
+import Utilities.RandomWeightAssigner;
+
+import java.util.Arrays;
+
+/**
+ * Generates a random MST without writing any weight into the graph:
+ * random 64-bit keys play the part of the i.i.d. weights, the edge ids are
+ * radix sorted by key in O(m), and Kruskal's union-find runs in that order.
+ * The trees have the distribution of RandomMSTGenerator's with a continuous weight
+ * distribution (uniform, exponential), whatever its MST algorithm, since only the
+ * order of the weights matters. With WeightDistribution.integer, equal weights are
+ * frequent and the MST algorithm's tie-breaking shapes the trees: use
+ * RandomMSTGenerator.sampleTree then.
+ * Edges with equal keys are taken by increasing id; with 64-bit keys, ties are
+ * unlikely even on graphs of 10^7 edges (about 3 * 10^-6 per sample).
+ */
+public class RandomKeyMSTSampler implements TreeSampler {
+    private final RandomWeightAssigner keySource;
+
+    // scratch state of sampleTree, kept between calls
+    private long[] keys = new long[0];
+    private int[] edges = new int[0];
+    private int[] unionFind = new int[0];
+    private int[] tree = new int[0];
+    private final RadixSort radixSort = new RadixSort();
+    private final TreeOrienter orienter = new TreeOrienter();
+
+    public RandomKeyMSTSampler() {
+        this.keySource = new RandomWeightAssigner();
+    }
+
+    public RandomKeyMSTSampler(long seed) {
+        this.keySource = new RandomWeightAssigner(seed);
+    }
+
+    /**
+     * Generates a random MST with arrays of this call only, keys being drawn in parallel,
+     * so that several samples may run on the same graph at the same time.
+     * @param graph the graph from which the spanning tree is generated
+     * @return the ids of the edges of the randomly generated spanning tree
+     */
+    public int[] generateSpanningTreeEdgeIds(IAdjacency graph) {
+        int m = graph.edgeCardinality();
+        long[] keys = keySource.drawKeys(m);
+        int[] edges = new int[m];
+        int[] parent = new int[graph.upperBound()];
+        int[] tree = new int[Math.max(0, graph.order() - 1)];
+        int size = kruskalByKeys(graph, keys, edges, parent, tree, new RadixSort());
+        return (size == tree.length ? tree : Arrays.copyOf(tree, size));
+    }
+
+    /**
+     * Samples a random MST, written as parent pointers towards the smallest vertex.
+     * The trees have the same distribution as those of generateSpanningTreeEdgeIds,
+     * but the keys come sequentially from a single stream, so for a given seed the
+     * two methods give different trees. Keys, sort buffers and union-find are kept
+     * between calls, so this method, unlike generateSpanningTreeEdgeIds, must not run
+     * on several threads at once.
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        int m = graph.edgeCardinality();
+        if (keys.length < m) {
+            keys = new long[m];
+            edges = new int[m];
+        }
+        if (unionFind.length < graph.upperBound()) unionFind = new int[graph.upperBound()];
+        if (tree.length < graph.order()) tree = new int[graph.order()];
+        keySource.fillKeys(keys, m);
+        int size = kruskalByKeys(graph, keys, edges, unionFind, tree, radixSort);
+
+        int root = TreeSampler.smallestVertex(graph);
+        orienter.orient(graph, tree, size, root, parent, parentEdge);
+        return root;
+    }
+
+    /**
+     * Sorts the edge ids by key and runs Kruskal's union-find in that order.
+     * @param keys the keys of the edges 0 .. m-1
+     * @param edges receives the sorted edge ids
+     * @param parent union-find, of graph.upperBound() entries at least
+     * @param tree receives the tree edges
+     * @return the number of tree edges
+     */
+    private static int kruskalByKeys(IAdjacency graph, long[] keys, int[] edges, int[] parent,
+                                     int[] tree, RadixSort radixSort) {
+        int m = graph.edgeCardinality();
+        for (int e = 0; e < m; e++) edges[e] = e;
+        radixSort.sort(keys, edges, m);
+
+        for (int v = 0; v < graph.upperBound(); v++) parent[v] = v;
+        int treeSize = Math.max(0, graph.order() - 1);
+        int size = 0;
+        for (int i = 0; i < m && size < treeSize; i++) {
+            int e = edges[i];
+            int a = find(parent, graph.edgeSource(e));
+            int b = find(parent, graph.edgeDest(e));
+            if (a != b) {
+                parent[a] = b;
+                tree[size++] = e;
+            }
+        }
+        return size;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
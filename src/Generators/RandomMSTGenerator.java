@@ -1,8 +1,12 @@
 package Generators;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 import MSTAlgorithms.IMSTAlgorithm;
+import RandomTreeAlgos.TreeOrienter;
+import RandomTreeAlgos.TreeSampler;
 import Utilities.RandomWeightAssigner;
 
 import java.util.ArrayList;
@@ -12,10 +16,14 @@ import java.util.ArrayList;
  * 1. Assigning a random weight in [0,1) to each edge independently
  * 2. Running an MST algorithm (e.g., Kruskal or Prim) to find the MST.
  */
-public class RandomMSTGenerator {
+public class RandomMSTGenerator implements TreeSampler {
     private final IMSTAlgorithm mstAlgorithm;
     private final RandomWeightAssigner weightAssigner;
 
+    // scratch state of sampleTree, kept between calls
+    private double[] weights = new double[0];
+    private final TreeOrienter orienter = new TreeOrienter();
+
     public RandomMSTGenerator(IMSTAlgorithm mstAlgorithm, RandomWeightAssigner weightAssigner) {
         this.mstAlgorithm = mstAlgorithm;
         this.weightAssigner = weightAssigner;
@@ -30,4 +38,97 @@ public class RandomMSTGenerator {
         weightAssigner.assignRandomWeights(graph);
         return mstAlgorithm.computeMST(graph);
     }
+
+    /**
+     * Generates a random spanning tree of a CSR graph.
+     * @param graph the graph from which the spanning tree is generated
+     * @return the ids of the edges of the randomly generated spanning tree
+     */
+    public int[] generateRandomMSTEdgeIds(CsrGraph graph) {
+        weightAssigner.assignRandomWeights(graph.edges);
+        return mstAlgorithm.computeMSTEdgeIds(graph);
+    }
+
+    /**
+     * Samples a random MST, written as parent pointers towards the smallest vertex.
+     * The weights are drawn into a buffer of this generator, that the MST algorithm
+     * reads through a view of the graph: the graph itself is not written, and may be
+     * shared with other samplers. The weights come sequentially from a single stream,
+     * so for a given seed the trees differ from those of generateRandomMSTEdgeIds.
+     * The buffer is kept between calls; the MST algorithm allocates its own arrays.
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        int m = graph.edgeCardinality();
+        if (weights.length < m) weights = new double[m];
+        weightAssigner.fillWeights(weights, m);
+        int[] tree = mstAlgorithm.computeMSTEdgeIds(new WeightedView(graph, weights));
+
+        int root = TreeSampler.smallestVertex(graph);
+        orienter.orient(graph, tree, tree.length, root, parent, parentEdge);
+        return root;
+    }
+
+    /**
+     * A graph whose edge weights are read from an array instead of the graph.
+     */
+    private static class WeightedView implements IAdjacency {
+        private final IAdjacency graph;
+        private final double[] weights;
+
+        WeightedView(IAdjacency graph, double[] weights) {
+            this.graph = graph;
+            this.weights = weights;
+        }
+
+        @Override
+        public int upperBound() {
+            return graph.upperBound();
+        }
+
+        @Override
+        public int order() {
+            return graph.order();
+        }
+
+        @Override
+        public boolean isVertex(int vertex) {
+            return graph.isVertex(vertex);
+        }
+
+        @Override
+        public int edgeCardinality() {
+            return graph.edgeCardinality();
+        }
+
+        @Override
+        public int degree(int vertex) {
+            return graph.degree(vertex);
+        }
+
+        @Override
+        public int neighbor(int vertex, int k) {
+            return graph.neighbor(vertex, k);
+        }
+
+        @Override
+        public int incidentEdge(int vertex, int k) {
+            return graph.incidentEdge(vertex, k);
+        }
+
+        @Override
+        public int edgeSource(int edge) {
+            return graph.edgeSource(edge);
+        }
+
+        @Override
+        public int edgeDest(int edge) {
+            return graph.edgeDest(edge);
+        }
+
+        @Override
+        public double edgeWeight(int edge) {
+            return weights[edge];
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a graph file in the MappedCsrGraph format from a stream of edges,
+ * without holding the graph on the heap.
+ * The degrees must be known beforehand (typically from a first pass over the input):
+ * the file is then mapped read-write, and each added edge is written in place,
+ * in its two adjacency slots. Heap usage is O(n).
+ * Use it in a try-with-resources block: finish() completes the file, close()
+ * releases it whether or not finish() was reached.
+ */
+public class CsrFileBuilder implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final boolean weighted;
+    private final long edgeCount;
+    private int edges;
+
+    private final long[] next; // next free adjacency slot of each vertex
+    private final MappedRegion offsets;
+    private final MappedRegion neighbors;
+    private final MappedRegion edgeIds;
+    private final MappedRegion source;
+    private final MappedRegion dest;
+    private final MappedRegion weights;
+
+    /**
+     * @param degrees the degree of every vertex 0 .. degrees.length-1
+     * @param edgeCount the number of edges that will be added
+     */
+    public CsrFileBuilder(Path path, int[] degrees, long edgeCount, boolean weighted) throws IOException {
+        int n = degrees.length;
+        long slots = 0;
+        for (int d : degrees) slots += d;
+        if (slots != 2 * edgeCount)
+            throw new IllegalArgumentException("Degrees do not add up to twice the number of edges");
+        if (edgeCount > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many edges for int edge ids: " + edgeCount);
+
+        this.weighted = weighted;
+        this.edgeCount = edgeCount;
+        this.edges = 0;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(MappedCsrGraph.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MappedCsrGraph.MAGIC).putInt(MappedCsrGraph.VERSION)
+                  .putInt(n).putInt(weighted ? MappedCsrGraph.WEIGHTED : 0).putLong(edgeCount);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header, header.position());
+
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+            long position = MappedCsrGraph.HEADER_BYTES;
+            offsets = new MappedRegion(channel, mode, position, n + 1L, 8);
+            next = new long[n];
+            long offset = 0;
+            for (int v = 0; v < n; v++) {
+                offsets.putLong(v, offset);
+                next[v] = offset;
+                offset += degrees[v];
+            }
+            offsets.putLong(n, offset);
+            position += 8 * (n + 1L);
+            neighbors = new MappedRegion(channel, mode, position, 2 * edgeCount, 4);
+            position += 8 * edgeCount;
+            edgeIds = new MappedRegion(channel, mode, position, 2 * edgeCount, 4);
+            position += 8 * edgeCount;
+            source = new MappedRegion(channel, mode, position, edgeCount, 4);
+            position += 4 * edgeCount;
+            dest = new MappedRegion(channel, mode, position, edgeCount, 4);
+            position += 4 * edgeCount;
+            weights = weighted ? new MappedRegion(channel, mode, position, edgeCount, 8) : null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the next edge; edges get ids 0, 1, 2... in the order they are added.
+     */
+    public void addEdge(int u, int v, double weight) {
+        if (edges == edgeCount)
+            throw new IllegalStateException("More edges than announced");
+        int e = edges++;
+        source.putInt(e, u);
+        dest.putInt(e, v);
+        if (weighted) weights.putDouble(e, weight);
+        long slot = next[u]++;
+        neighbors.putInt(slot, v);
+        edgeIds.putInt(slot, e);
+        slot = next[v]++;
+        neighbors.putInt(slot, u);
+        edgeIds.putInt(slot, e);
+    }
+
+    /**
+     * Checks that all announced edges were added, writes the mapped regions
+     * to the file and closes it.
+     */
+    public void finish() throws IOException {
+        if (edges != edgeCount)
+            throw new IllegalStateException("Only " + edges + " edges added out of " + edgeCount);
+        offsets.force();
+        neighbors.force();
+        edgeIds.force();
+        source.force();
+        dest.force();
+        if (weighted) weights.force();
+        channel.force(true);
+        channel.close();
+    }
+
+    /**
+     * Closes the file; does nothing after finish().
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,189 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Graph stored in compressed sparse row (CSR) form.
+ * The incident edges of vertex v occupy the slots offsets[v] .. offsets[v+1]-1:
+ * neighbors[i] is the opposite extremity and edgeIds[i] the id of the edge.
+ * Each undirected edge is described once, in the EdgeTable edges.
+ * The structure is fixed once built, but the arrays are public for fast scans
+ * and are not copied: callers must not modify them. Only the weights of edges
+ * may be rewritten (RandomMSTGenerator does), so a graph shared between threads
+ * must not be given to such writers.
+ * This costs a few ints per edge instead of the Edge and Arc objects
+ * and list entries of Graph, and makes neighbor scans sequential in memory.
+ */
+public class CsrGraph implements IAdjacency {
+
+    public final int upperBound;
+    public final int order;
+
+    public final int[] offsets;
+    public final int[] neighbors;
+    public final int[] edgeIds;
+
+    public final EdgeTable edges;
+
+    private final boolean[] active; // null when all vertices are active
+    private final Edge[] origin;    // Edge objects of the Graph this was built from, or null
+
+    /**
+     * Builds the CSR structure of the graph on vertices 0 .. upperBound-1
+     * whose edges are given by an edge table.
+     */
+    public CsrGraph(int upperBound, EdgeTable edges) {
+        this(upperBound, upperBound, null, edges, null);
+    }
+
+    private CsrGraph(int upperBound, int order, boolean[] active, EdgeTable edges, Edge[] origin) {
+        this.upperBound = upperBound;
+        this.order = order;
+        this.active = active;
+        this.edges = edges;
+        this.origin = origin;
+
+        int m = edges.size();
+        int[] source = edges.source;
+        int[] dest = edges.dest;
+        offsets = new int[upperBound + 1];
+        for (int e = 0; e < m; e++) {
+            offsets[source[e] + 1]++;
+            offsets[dest[e] + 1]++;
+        }
+        for (int v = 0; v < upperBound; v++)
+            offsets[v + 1] += offsets[v];
+
+        neighbors = new int[2 * m];
+        edgeIds = new int[2 * m];
+        int[] fill = new int[upperBound];
+        for (int e = 0; e < m; e++) {
+            int u = source[e];
+            int v = dest[e];
+            int i = offsets[u] + fill[u]++;
+            neighbors[i] = v;
+            edgeIds[i] = e;
+            i = offsets[v] + fill[v]++;
+            neighbors[i] = u;
+            edgeIds[i] = e;
+        }
+    }
+
+    /**
+     * Snapshots a Graph into CSR form.
+     * Edge ids are the same as in the Graph, and refer back to its Edge objects,
+     * see getEdge and toEdgeList.
+     */
+    public static CsrGraph fromGraph(Graph graph) {
+        boolean[] active = new boolean[graph.upperBound];
+        for (int v = 0; v < graph.upperBound; v++)
+            active[v] = graph.isVertex(v);
+        int m = graph.edgeCardinality();
+        Edge[] origin = new Edge[m];
+        EdgeTable edges = new EdgeTable(m, WeightColumn.doubles(m));
+        for (int i = 0; i < m; i++) {
+            Edge e = graph.getEdge(i);
+            origin[i] = e;
+            edges.add(e.getSource(), e.getDest(), e.weight);
+        }
+        return new CsrGraph(graph.upperBound, graph.order, active, edges, origin);
+    }
+
+    /**
+     * Builds the CSR structure of a list of edges on vertices 0 .. upperBound-1.
+     * The i-th edge of the list gets id i.
+     */
+    public static CsrGraph fromEdges(int upperBound, List<Edge> list) {
+        int m = list.size();
+        EdgeTable edges = new EdgeTable(m, WeightColumn.doubles(m));
+        for (Edge e : list) edges.add(e.getSource(), e.getDest(), e.weight);
+        return new CsrGraph(upperBound, upperBound, null, edges, list.toArray(new Edge[0]));
+    }
+
+    @Override
+    public int upperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public boolean isVertex(int vertex) {
+        return vertex >= 0 && vertex < upperBound && (active == null || active[vertex]);
+    }
+
+    @Override
+    public int edgeCardinality() {
+        return edges.size();
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    @Override
+    public int neighbor(int vertex, int k) {
+        return neighbors[offsets[vertex] + k];
+    }
+
+    @Override
+    public int incidentEdge(int vertex, int k) {
+        return edgeIds[offsets[vertex] + k];
+    }
+
+    @Override
+    public int edgeSource(int edge) {
+        return edges.source[edge];
+    }
+
+    @Override
+    public int edgeDest(int edge) {
+        return edges.dest[edge];
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return edges.weight(edge);
+    }
+
+    /**
+     * @return the Edge object with the given id: the original one if this graph
+     * was built from Edge objects, a fresh one otherwise
+     */
+    public Edge getEdge(int edge) {
+        if (origin != null) return origin[edge];
+        return new Edge(edges.source[edge], edges.dest[edge], edges.weight(edge));
+    }
+
+    public ArrayList<Edge> toEdgeList(int[] ids) {
+        ArrayList<Edge> list = new ArrayList<>(ids.length);
+        for (int e : ids) list.add(getEdge(e));
+        return list;
+    }
+
+    /**
+     * Maps Edge objects of the original graph back to their ids in this graph.
+     * Edges that do not belong to the original graph are ignored.
+     */
+    public int[] toEdgeIds(Collection<Edge> list) {
+        IdentityHashMap<Edge, Integer> ids = new IdentityHashMap<>();
+        if (origin != null) {
+            for (int i = 0; i < origin.length; i++) ids.put(origin[i], i);
+        }
+        int[] result = new int[list.size()];
+        int size = 0;
+        for (Edge e : list) {
+            Integer id = ids.get(e);
+            if (id != null) result[size++] = id;
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
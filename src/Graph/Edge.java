@@ -6,6 +6,12 @@ public class Edge implements Comparable<Edge> {
 	public int dest;
 	public double weight;
 
+	// id of the edge and positions in the incidency lists of its extremities,
+	// maintained by Graph (-1 when the edge is not in a graph)
+	int id = -1;
+	int sourceSlot = -1;
+	int destSlot = -1;
+
 	public Edge(int source, int dest, double weight) {
 		this.source = source;
 		this.dest = dest;
@@ -22,6 +28,15 @@ public class Edge implements Comparable<Edge> {
 		return (dest == vertex ? source : dest);
 	}
 
+	int slotAt(int vertex) {
+		return (source == vertex ? sourceSlot : destSlot);
+	}
+
+	void setSlotAt(int vertex, int slot) {
+		if (source == vertex) sourceSlot = slot;
+		else destSlot = slot;
+	}
+
 	public int getSource() {
 		return this.source;
 	}
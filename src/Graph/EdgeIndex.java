@@ -0,0 +1,135 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from an unordered pair of vertices {u,v} to an edge id.
+ * The pair is packed into a long (smaller vertex in the high half),
+ * and stored with linear probing in primitive arrays: no boxing, no entry objects.
+ * Only one edge is kept per pair.
+ */
+public class EdgeIndex {
+
+    private static final long EMPTY = -1L; // packed pairs are never negative
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public EdgeIndex(int expectedSize) {
+        int capacity = 4;
+        while (capacity < 2 * expectedSize) capacity *= 2;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static long key(int u, int v) {
+        int low = Math.min(u, v);
+        int high = Math.max(u, v);
+        return ((long) low << 32) | high;
+    }
+
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int find(long key) {
+        int i = home(key);
+        while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+        return i;
+    }
+
+    /**
+     * Removes every pair, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the id of the edge joining u and v, or -1 if there is none
+     */
+    public int get(int u, int v) {
+        int i = find(key(u, v));
+        return (keys[i] == EMPTY ? -1 : values[i]);
+    }
+
+    /**
+     * Associates the pair {u,v} with an edge id, replacing any previous one.
+     */
+    public void put(int u, int v, int edge) {
+        long key = key(u, v);
+        int i = find(key);
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = edge;
+        if (2 * size > keys.length) grow();
+    }
+
+    /**
+     * Associates the pair {u,v} with an edge id, unless it already has one.
+     * @return true if the edge was added
+     */
+    public boolean putIfAbsent(int u, int v, int edge) {
+        long key = key(u, v);
+        int i = find(key);
+        if (keys[i] != EMPTY) return false;
+        keys[i] = key;
+        values[i] = edge;
+        size++;
+        if (2 * size > keys.length) grow();
+        return true;
+    }
+
+    /**
+     * Removes the pair {u,v}.
+     * Entries of the same probe run are shifted back, so no tombstone is left.
+     */
+    public void remove(int u, int v) {
+        int i = find(key(u, v));
+        if (keys[i] == EMPTY) return;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) break;
+            int k = home(keys[j]);
+            // the entry in j stays if its home lies cyclically in (i, j]
+            boolean stays = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+            if (stays) continue;
+            keys[i] = keys[j];
+            values[i] = values[j];
+            i = j;
+        }
+        keys[i] = EMPTY;
+        size--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int j = find(oldKeys[i]);
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+            size++;
+        }
+    }
+}
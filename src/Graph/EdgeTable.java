@@ -0,0 +1,80 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * Edges stored as parallel arrays instead of Edge objects.
+ * Edge e (0 <= e < size()) joins source[e] and dest[e], with weight weights.get(e).
+ * The table grows as edges are added; the arrays may be longer than size().
+ */
+public class EdgeTable {
+
+    public int[] source;
+    public int[] dest;
+    public final WeightColumn weights;
+    private int size;
+
+    public EdgeTable(int capacity, WeightColumn weights) {
+        this.source = new int[Math.max(1, capacity)];
+        this.dest = new int[Math.max(1, capacity)];
+        this.weights = weights;
+        this.weights.ensureCapacity(this.source.length);
+        this.size = 0;
+    }
+
+    /**
+     * Wraps existing arrays, edge e joining source[e] and dest[e].
+     */
+    public EdgeTable(int[] source, int[] dest, WeightColumn weights) {
+        this.source = source;
+        this.dest = dest;
+        this.weights = weights;
+        this.weights.ensureCapacity(source.length);
+        this.size = source.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double weight(int edge) {
+        return weights.get(edge);
+    }
+
+    /**
+     * Adds an edge of weight 0.
+     * @return the id of the new edge
+     */
+    public int add(int u, int v) {
+        if (size == source.length) {
+            int capacity = 2 * source.length;
+            source = Arrays.copyOf(source, capacity);
+            dest = Arrays.copyOf(dest, capacity);
+            weights.ensureCapacity(capacity);
+        }
+        source[size] = u;
+        dest[size] = v;
+        return size++;
+    }
+
+    /**
+     * Adds an edge with the given weight.
+     * @return the id of the new edge
+     */
+    public int add(int u, int v, double weight) {
+        int edge = add(u, v);
+        weights.set(edge, weight);
+        return edge;
+    }
+
+    /**
+     * Shrinks the arrays to the number of edges.
+     */
+    public void trimToSize() {
+        if (source.length != size) {
+            source = Arrays.copyOf(source, size);
+            dest = Arrays.copyOf(dest, size);
+        }
+        weights.trim(size);
+    }
+}
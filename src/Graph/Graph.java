@@ -1,32 +1,27 @@
 package Graph;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 
-public class Graph {
+public class Graph implements IAdjacency {
     public int order;
     public int upperBound;
     int edgeCardinality;
 
-    private ArrayList<LinkedList<Edge>> incidency;   // Undirected edges
-    private ArrayList<LinkedList<Arc>> inIncidency;  // Incoming arcs
-    private ArrayList<LinkedList<Arc>> outIncidency; // Outgoing arcs
+    // An edge incident to v records its slot in the list of v
+    // (Edge.sourceSlot / Edge.destSlot), so that it is removed in constant time.
+    // Arcs are not stored: they are derived from the edges on demand.
+    private ArrayList<ArrayList<Edge>> incidency;   // Undirected edges
 
-    public ArrayList<LinkedList<Edge>> getIncidency() {
+    // Edges by id. Ids are dense: removing an edge gives its id to the last edge.
+    private ArrayList<Edge> edges;
+
+    public ArrayList<ArrayList<Edge>> getIncidency() {
         return incidency;
     }
     public int getActiveVertexCount() {
         return order;
     }
 
-    public ArrayList<LinkedList<Arc>> getInIncidency() {
-        return inIncidency;
-    }
-
-    public ArrayList<LinkedList<Arc>> getOutIncidency() {
-        return outIncidency;
-    }
-
     boolean[] active; // track which vertices are currently part of the graph
 
     public Graph(int upperBound) {
@@ -36,13 +31,10 @@ public class Graph {
 
         // Initialize lists
         incidency = new ArrayList<>(upperBound);
-        inIncidency = new ArrayList<>(upperBound);
-        outIncidency = new ArrayList<>(upperBound);
+        edges = new ArrayList<>();
 
         for (int i = 0; i < upperBound; i++) {
-            incidency.add(new LinkedList<>());
-            inIncidency.add(new LinkedList<>());
-            outIncidency.add(new LinkedList<>());
+            incidency.add(new ArrayList<>());
         }
 
         // Initially all vertices active
@@ -59,7 +51,6 @@ public class Graph {
     public Graph copy() {
         Graph copy = new Graph(this.upperBound);
         copy.order = this.order;
-        copy.edgeCardinality = this.edgeCardinality;
 
         // Copy active vertices state
         System.arraycopy(this.active, 0, copy.active, 0, this.upperBound);
@@ -67,11 +58,9 @@ public class Graph {
         // Clear the new graph's lists (they were initialized in constructor)
         for (int i = 0; i < upperBound; i++) {
             copy.incidency.get(i).clear();
-            copy.inIncidency.get(i).clear();
-            copy.outIncidency.get(i).clear();
         }
 
-        // Copy all edges and their corresponding arcs
+        // Copy all edges
         for (int v = 0; v < upperBound; v++) {
             if (this.isVertex(v)) {
                 for (Edge e : this.incidency.get(v)) {
@@ -86,6 +75,75 @@ public class Graph {
         return copy;
     }
 
+    public Edge getEdge(int id) {
+        return edges.get(id);
+    }
+
+    // IAdjacency view, by vertex and edge ids
+
+    @Override
+    public int upperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public int edgeCardinality() {
+        return edgeCardinality;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return incidency.get(vertex).size();
+    }
+
+    @Override
+    public int neighbor(int vertex, int k) {
+        return incidency.get(vertex).get(k).oppositeExtremity(vertex);
+    }
+
+    @Override
+    public int incidentEdge(int vertex, int k) {
+        return incidency.get(vertex).get(k).id;
+    }
+
+    @Override
+    public int edgeSource(int edge) {
+        return edges.get(edge).source;
+    }
+
+    @Override
+    public int edgeDest(int edge) {
+        return edges.get(edge).dest;
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return edges.get(edge).weight;
+    }
+
+    /**
+     * @return an edge joining u and v, or null if there is none,
+     * scanning the shorter incidency list
+     */
+    public Edge findEdge(int u, int v) {
+        if (!isVertex(u) || !isVertex(v)) return null;
+        if (incidency.get(v).size() < incidency.get(u).size()) {
+            int w = u;
+            u = v;
+            v = w;
+        }
+        for (Edge e : incidency.get(u)) {
+            if (e.oppositeExtremity(u) == v) return e;
+        }
+        return null;
+    }
+
+    @Override
     public boolean isVertex(int vertex) {
         return vertex >= 0 && vertex < upperBound && active[vertex];
     }
@@ -101,25 +159,14 @@ public class Graph {
 
     public void deleteVertex(int vertex) {
         if (!isVertex(vertex)) return;
-        // Remove all edges and arcs involving this vertex
-        // First remove from incidency and update the other endpoints
+        // Remove all edges involving this vertex
+        // Only the other endpoints need updating, the lists of vertex are cleared below
         for (Edge e : incidency.get(vertex)) {
             int other = e.oppositeExtremity(vertex);
-            incidency.get(other).removeIf(edge -> edge == e);
-            // Remove corresponding arcs
-            // outArc from vertex to other and inArc from other to vertex
-            outIncidency.get(vertex).removeIf(a -> a.getDest() == other);
-            inIncidency.get(other).removeIf(a -> a.getSource() == vertex);
-
-            // Also remove the reverse
-            inIncidency.get(vertex).removeIf(a -> a.getSource() == other);
-            outIncidency.get(other).removeIf(a -> a.getDest() == vertex);
-
-            edgeCardinality--;
+            removeSlot(other, e.slotAt(other));
+            removeFromTable(e);
         }
         incidency.get(vertex).clear();
-        inIncidency.get(vertex).clear();
-        outIncidency.get(vertex).clear();
 
         // Mark vertex as inactive
         active[vertex] = false;
@@ -134,62 +181,87 @@ public class Graph {
         }
     }
 
-    public void addArc(Arc arc) {
-        // Add arc to outIncidency of its source and inIncidency of its destination
-        int source = arc.getSource();
-        int dest = arc.getDest();
-        if (!isVertex(source) || !isVertex(dest)) return;
-        outIncidency.get(source).add(arc);
-        inIncidency.get(dest).add(arc);
-    }
-
     public void addEdge(Edge edge) {
         int u = edge.getSource();
         int v = edge.getDest();
         if (!isVertex(u) || !isVertex(v) || u == v) return;
 
         // For undirected edge, add to incidency of both endpoints
+        edge.sourceSlot = incidency.get(u).size();
+        edge.destSlot = incidency.get(v).size();
         incidency.get(u).add(edge);
         incidency.get(v).add(edge);
 
-        // Add corresponding arcs
-        Arc forwardArc = new Arc(edge, false); // u -> v
-        Arc backwardArc = new Arc(edge, true); // v -> u
-
-        addArc(forwardArc);
-        addArc(backwardArc);
-
+        edge.id = edges.size();
+        edges.add(edge);
         edgeCardinality++;
     }
 
+    /**
+     * @return the arc leaving vertex along its k-th incident edge
+     */
+    public Arc outArc(int vertex, int k) {
+        Edge e = incidency.get(vertex).get(k);
+        return new Arc(e, e.getSource() != vertex);
+    }
+
+    /**
+     * Allocates the arcs leaving vertex.
+     * Prefer the degree / neighbor / incidentEdge cursor, which allocates nothing.
+     */
     public Arc[] outEdges(int vertex) {
-        return outIncidency.get(vertex).toArray(new Arc[0]);
+        Arc[] arcs = new Arc[degree(vertex)];
+        for (int k = 0; k < arcs.length; k++) arcs[k] = outArc(vertex, k);
+        return arcs;
     }
 
     public void removeEdge(Edge edge) {
         int u = edge.getSource();
         int w = edge.getDest();
-        incidency.get(u).remove(edge);
-        incidency.get(w).remove(edge);
+        if (!isVertex(u) || !isVertex(w) || edge.sourceSlot < 0) return;
+        ArrayList<Edge> edges = incidency.get(u);
+        if (edge.sourceSlot >= edges.size() || edges.get(edge.sourceSlot) != edge) return; // not in this graph
 
-        inIncidency.get(u).removeIf(a -> a.support == edge);
-        outIncidency.get(u).removeIf(a -> a.support == edge);
-        inIncidency.get(w).removeIf(a -> a.support == edge);
-        outIncidency.get(w).removeIf(a -> a.support == edge);
+        removeSlot(u, edge.sourceSlot);
+        removeSlot(w, edge.destSlot);
+        removeFromTable(edge);
+    }
 
+    /**
+     * Removes an edge, already out of the incidency lists, from the edge table.
+     */
+    private void removeFromTable(Edge edge) {
+        Edge last = edges.remove(edges.size() - 1);
+        if (last != edge) {
+            edges.set(edge.id, last);
+            last.id = edge.id;
+        }
+        edge.id = -1;
+        edge.sourceSlot = -1;
+        edge.destSlot = -1;
         edgeCardinality--;
     }
 
-    public void addEdgeIfNotDuplicate(Edge newEdge) {
-        int u = newEdge.getSource();
-        int x = newEdge.getDest();
+    /**
+     * Removes the edge in the given slot of vertex,
+     * by moving the last edge of the list into that slot.
+     */
+    private void removeSlot(int vertex, int slot) {
+        ArrayList<Edge> edges = incidency.get(vertex);
+        int last = edges.size() - 1;
+        if (slot != last) {
+            Edge moved = edges.get(last);
+            edges.set(slot, moved);
+            moved.setSlotAt(vertex, slot);
+        }
+        edges.remove(last);
+    }
 
-        for (Edge e : incidency.get(u)) {
-            if ((e.getSource() == u && e.getDest() == x) || (e.getSource() == x && e.getDest() == u)) {
-                return; // Edge already exists
-            }
+    public void addEdgeIfNotDuplicate(Edge newEdge) {
+        if (findEdge(newEdge.getSource(), newEdge.getDest()) != null) {
+            return; // Edge already exists
         }
 
         addEdge(newEdge);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package Graph;
+
+/**
+ * Read-only view of an undirected graph, addressed by integer vertex and edge ids.
+ * Vertices are numbered 0 .. upperBound()-1 (some may be inactive),
+ * edges are numbered 0 .. edgeCardinality()-1.
+ * The k-th incident edge of a vertex v (0 <= k < degree(v)) leads to neighbor(v, k).
+ * Iterating with this cursor, or with forEachNeighbor, allocates nothing.
+ */
+public interface IAdjacency {
+
+    int upperBound();
+
+    int order();
+
+    boolean isVertex(int vertex);
+
+    int edgeCardinality();
+
+    int degree(int vertex);
+
+    /**
+     * @return the opposite extremity of the k-th edge incident to vertex
+     */
+    int neighbor(int vertex, int k);
+
+    /**
+     * @return the id of the k-th edge incident to vertex
+     */
+    int incidentEdge(int vertex, int k);
+
+    int edgeSource(int edge);
+
+    int edgeDest(int edge);
+
+    double edgeWeight(int edge);
+
+    /**
+     * Calls visitor on each (neighbor, edge id) pair of vertex.
+     */
+    default void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        int degree = degree(vertex);
+        for (int k = 0; k < degree; k++)
+            visitor.visit(neighbor(vertex, k), incidentEdge(vertex, k));
+    }
+}
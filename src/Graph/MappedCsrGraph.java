@@ -0,0 +1,201 @@
+package Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Graph in CSR form whose arrays live in a memory-mapped file instead of the heap.
+ * Only the mapping tables are on the heap: the page cache holds the graph,
+ * so it may be larger than the heap, and even than the physical memory.
+ *
+ * File layout (little-endian), n = upperBound, m = number of edges:
+ *   header:    int magic, int version, int n, int flags, long m
+ *   offsets:   long[n+1]   incident edges of v in slots offsets[v] .. offsets[v+1]-1
+ *   neighbors: int[2m]
+ *   edgeIds:   int[2m]
+ *   source:    int[m]
+ *   dest:      int[m]
+ *   weights:   double[m]   only if flags has WEIGHTED set
+ * The long and double sections start on a multiple of 8 bytes.
+ */
+public class MappedCsrGraph implements IAdjacency {
+
+    public static final int MAGIC = 0x47525343; // "CSRG"
+    public static final int VERSION = 1;
+    public static final int WEIGHTED = 1;
+    static final int HEADER_BYTES = 24;
+
+    public final int upperBound;
+    private final long edgeCount;
+
+    private final MappedRegion offsets;
+    private final MappedRegion neighbors;
+    private final MappedRegion edgeIds;
+    private final MappedRegion source;
+    private final MappedRegion dest;
+    private final MappedRegion weights; // null if the file has no weights
+
+    private MappedCsrGraph(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+            throw new IOException("Not a CSR graph file");
+        int version = header.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported CSR graph file version " + version);
+        upperBound = header.getInt();
+        int flags = header.getInt();
+        edgeCount = header.getLong();
+        if (edgeCount > Integer.MAX_VALUE)
+            throw new IOException("Too many edges for int edge ids: " + edgeCount);
+
+        FileChannel.MapMode mode = FileChannel.MapMode.READ_ONLY;
+        long position = HEADER_BYTES;
+        offsets = new MappedRegion(channel, mode, position, upperBound + 1L, 8);
+        position += 8 * (upperBound + 1L);
+        neighbors = new MappedRegion(channel, mode, position, 2 * edgeCount, 4);
+        position += 8 * edgeCount;
+        edgeIds = new MappedRegion(channel, mode, position, 2 * edgeCount, 4);
+        position += 8 * edgeCount;
+        source = new MappedRegion(channel, mode, position, edgeCount, 4);
+        position += 4 * edgeCount;
+        dest = new MappedRegion(channel, mode, position, edgeCount, 4);
+        position += 4 * edgeCount;
+        weights = ((flags & WEIGHTED) != 0)
+                ? new MappedRegion(channel, mode, position, edgeCount, 8)
+                : null;
+    }
+
+    /**
+     * Maps a graph file into memory. Nothing is read until it is accessed.
+     */
+    public static MappedCsrGraph open(Path path) throws IOException {
+        // mappings stay valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedCsrGraph(channel);
+        }
+    }
+
+    /**
+     * Writes a graph in the file format read by open.
+     * All vertices 0 .. upperBound-1 of the graph must be active.
+     * @param withWeights whether to store the edge weights
+     */
+    public static void write(IAdjacency graph, boolean withWeights, Path path) throws IOException {
+        int n = graph.upperBound();
+        if (graph.order() != n)
+            throw new IllegalArgumentException("Only graphs without deleted vertices can be written");
+        int m = graph.edgeCardinality();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(withWeights ? WEIGHTED : 0).putLong(m);
+
+            long offset = 0;
+            for (int v = 0; v < n; v++) {
+                flushIfFull(channel, out, 8);
+                out.putLong(offset);
+                offset += graph.degree(v);
+            }
+            flushIfFull(channel, out, 8);
+            out.putLong(offset);
+
+            for (int v = 0; v < n; v++) {
+                for (int k = 0; k < graph.degree(v); k++) {
+                    flushIfFull(channel, out, 4);
+                    out.putInt(graph.neighbor(v, k));
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                for (int k = 0; k < graph.degree(v); k++) {
+                    flushIfFull(channel, out, 4);
+                    out.putInt(graph.incidentEdge(v, k));
+                }
+            }
+            for (int e = 0; e < m; e++) {
+                flushIfFull(channel, out, 4);
+                out.putInt(graph.edgeSource(e));
+            }
+            for (int e = 0; e < m; e++) {
+                flushIfFull(channel, out, 4);
+                out.putInt(graph.edgeDest(e));
+            }
+            if (withWeights) {
+                for (int e = 0; e < m; e++) {
+                    flushIfFull(channel, out, 8);
+                    out.putDouble(graph.edgeWeight(e));
+                }
+            }
+            flush(channel, out);
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer out, int needed) throws IOException {
+        if (out.remaining() < needed) flush(channel, out);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+
+    public boolean hasWeights() {
+        return weights != null;
+    }
+
+    @Override
+    public int upperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public int order() {
+        return upperBound;
+    }
+
+    @Override
+    public boolean isVertex(int vertex) {
+        return vertex >= 0 && vertex < upperBound;
+    }
+
+    @Override
+    public int edgeCardinality() {
+        return (int) edgeCount;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return (int) (offsets.getLong(vertex + 1L) - offsets.getLong(vertex));
+    }
+
+    @Override
+    public int neighbor(int vertex, int k) {
+        return neighbors.getInt(offsets.getLong(vertex) + k);
+    }
+
+    @Override
+    public int incidentEdge(int vertex, int k) {
+        return edgeIds.getInt(offsets.getLong(vertex) + k);
+    }
+
+    @Override
+    public int edgeSource(int edge) {
+        return source.getInt(edge);
+    }
+
+    @Override
+    public int edgeDest(int edge) {
+        return dest.getInt(edge);
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return (weights == null ? 0 : weights.getDouble(edge));
+    }
+}
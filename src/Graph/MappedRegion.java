@@ -0,0 +1,76 @@
+package Graph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A memory-mapped array of ints, longs or doubles inside a file.
+ * A single mapping is limited to 2 GiB, so the region is mapped as a sequence
+ * of 1 GiB chunks, addressed with a long index. Elements never straddle two
+ * chunks since the element size divides the chunk size.
+ * Values are little-endian.
+ */
+class MappedRegion {
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final MappedByteBuffer[] chunks;
+
+    /**
+     * @param position byte position of the region in the file
+     * @param elements number of elements in the region
+     * @param elementSize size of an element in bytes: 4 or 8
+     */
+    MappedRegion(FileChannel channel, FileChannel.MapMode mode,
+                 long position, long elements, int elementSize) throws IOException {
+        long bytes = elements * elementSize;
+        int count = (int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT);
+        chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long size = Math.min(1L << CHUNK_SHIFT, bytes - start);
+            chunks[i] = channel.map(mode, position + start, size);
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Writes the changes of a read-write region to the file.
+     */
+    void force() {
+        for (MappedByteBuffer chunk : chunks) chunk.force();
+    }
+
+    int getInt(long index) {
+        long at = index << 2;
+        return chunks[(int) (at >>> CHUNK_SHIFT)].getInt((int) (at & CHUNK_MASK));
+    }
+
+    long getLong(long index) {
+        long at = index << 3;
+        return chunks[(int) (at >>> CHUNK_SHIFT)].getLong((int) (at & CHUNK_MASK));
+    }
+
+    double getDouble(long index) {
+        long at = index << 3;
+        return chunks[(int) (at >>> CHUNK_SHIFT)].getDouble((int) (at & CHUNK_MASK));
+    }
+
+    void putInt(long index, int value) {
+        long at = index << 2;
+        chunks[(int) (at >>> CHUNK_SHIFT)].putInt((int) (at & CHUNK_MASK), value);
+    }
+
+    void putLong(long index, long value) {
+        long at = index << 3;
+        chunks[(int) (at >>> CHUNK_SHIFT)].putLong((int) (at & CHUNK_MASK), value);
+    }
+
+    void putDouble(long index, double value) {
+        long at = index << 3;
+        chunks[(int) (at >>> CHUNK_SHIFT)].putDouble((int) (at & CHUNK_MASK), value);
+    }
+}
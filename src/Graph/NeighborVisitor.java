@@ -0,0 +1,9 @@
+package Graph;
+
+/**
+ * Callback receiving the incident edges of a vertex, see IAdjacency.forEachNeighbor.
+ */
+@FunctionalInterface
+public interface NeighborVisitor {
+    void visit(int neighbor, int edge);
+}
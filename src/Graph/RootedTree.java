@@ -3,319 +3,325 @@ package Graph;
 import RandomTreeAlgos.BreadthFirstSearch;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Arrays;
 
 
+/**
+ * A tree rooted at its center, stored in primitive arrays indexed by vertex:
+ * parent pointers, children as firstChild / nextSibling lists, a BFS order,
+ * and the height, size and depth of every node.
+ */
 public class RootedTree {
-	
-	private int getHeight(Node n) {
-		return (n == null ? -1 : n.height);
-	}
-	
-	private int getSize(Node n) {
-		return (n == null ? -1 : n.size);
-	}
-	
-
-	private class Node {
-		int vertex;
-		ArrayList<Node> sons;
-		
-		int height;
-		int size;
-		int depth;
-		
-		public Node(int vertex) {
-			this.vertex = vertex;
-			this.sons = new ArrayList<>();
-			this.height = 0;
-		}
-		
-		
-		public void setHeight() {
-			int maxHeight = -1;
-			for (Node son : this.sons) 
-				maxHeight = Math.max(maxHeight, son.height);
-			this.height = maxHeight + 1;
-		}
-		
-		
-		private void setSize() {
-			size = 1;
-			for (Node son : this.sons) size = size + son.size;
-		}
-		
-		private void setSonsDepth() {
-			for (Node son : this.sons) son.depth = this.depth + 1;
-		}
-		
-		private Node maxSizeSon() {
-			Node maxSon = null;
-			for (Node son : sons) { 
-				if (son.size > getSize(maxSon)) maxSon = son;
-			}
-			return maxSon;
-		}
-		
-		private Node maxHeightSon() {
-			Node maxSon = null;
-			for (Node son : sons) {
-				if (son.height > getHeight(maxSon)) maxSon = son; 
-			}
-			return maxSon;
+
+	// parent[v]: parent of v, -1 for the root
+	int[] parent;
+	// children of v: firstChild[v], then nextSibling of each child, -1 ending the list
+	int[] firstChild;
+	int[] nextSibling;
+
+	// to write recursive algorithms without recursion: parents before their sons
+	int[] bfsOrder;
+
+	int[] height;
+	int[] size;
+	int[] depth;
+
+	int root;
+	int order;
+
+
+	// Node helpers
+
+	private int maxSizeSon(int vertex) {
+		int maxSon = -1;
+		for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son]) {
+			if (maxSon < 0 || size[son] > size[maxSon]) maxSon = son;
 		}
-		
-		
-		private int secondMaxHeight() {
-			int maxHeight = -1;
-			int secondMaxHeight = -1;
-			for (Node son : sons) {
-				if (son.height > secondMaxHeight) {
-					secondMaxHeight = Math.min(maxHeight, son.height);
-					maxHeight = Math.max(maxHeight, son.height);
-				}
-			}
-			return secondMaxHeight;
+		return maxSon;
+	}
+
+	private int maxHeightSon(int vertex) {
+		int maxSon = -1;
+		for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son]) {
+			if (maxSon < 0 || height[son] > height[maxSon]) maxSon = son;
 		}
+		return maxSon;
+	}
 
-		private void print() {
-			System.out.print("Node " + this.vertex + ", sons: ");
-			for (Node son : this.sons) {
-				System.out.print(son.vertex + " ");
+	private int secondMaxHeight(int vertex) {
+		int maxHeight = -1;
+		int secondMaxHeight = -1;
+		for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son]) {
+			if (height[son] > secondMaxHeight) {
+				secondMaxHeight = Math.min(maxHeight, height[son]);
+				maxHeight = Math.max(maxHeight, height[son]);
 			}
-			System.out.println("(height: " + this.height 
-							 + ", size: " + this.size
-							 + ", 2nd height: " + this.secondMaxHeight()
-							 + ", depth: " + this.depth
-							 + ")");
 		}
-		
+		return secondMaxHeight;
+	}
+
+	private int numberOfSons(int vertex) {
+		int count = 0;
+		for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son]) count++;
+		return count;
 	}
-	
-	// to write recursive algorithms without recursion
-	ArrayList<Node> inverseBfsOrder;
-	ArrayList<Node> bfsOrder; 
-	
-	Node nodes[];
-	Node root;
-	int order;
-	
+
 
 	// Tree initialization
-	
+
 	public void computeAllHeights() {
-		for(Node n : inverseBfsOrder) n.setHeight();
+		for (int i = order - 1; i >= 0; i--) {
+			int vertex = bfsOrder[i];
+			int maxHeight = -1;
+			for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son])
+				maxHeight = Math.max(maxHeight, height[son]);
+			height[vertex] = maxHeight + 1;
+		}
 	}
-	
-	
+
+
 	public void computeAllSizes() {
-		for (Node n : inverseBfsOrder) n.setSize();
+		for (int i = order - 1; i >= 0; i--) {
+			int vertex = bfsOrder[i];
+			size[vertex] = 1;
+			for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son])
+				size[vertex] = size[vertex] + size[son];
+		}
 	}
-	
-	
+
+
 	public void computeAllDepths() {
-		root.depth = 0;
-		for (Node n : bfsOrder) n.setSonsDepth();
+		depth[root] = 0;
+		for (int i = 1; i < order; i++) {
+			int vertex = bfsOrder[i];
+			depth[vertex] = depth[parent[vertex]] + 1;
+		}
 	}
-	
-	
-	
+
+
+
 	// Tree invariants
-	
-	
+
+
 	// sum of distances between all pairs of vertices.
 	public long getWienerIndex() {
 		long count = 0;
-		for (Node n : bfsOrder) {
-			if (n == root) continue;
-			count = count + n.size * (order - n.size);
+		for (int vertex : bfsOrder) {
+			if (vertex == root) continue;
+			count = count + (long) size[vertex] * (order - size[vertex]);
 		}
 		return count;
 	}
-	
-	
+
+
 	public int[] getDegreeDistribution(int maxDegree) {
 		int maxIndex = Math.min(maxDegree,order-1);
 		int[] degrees = new int[1+maxIndex];
-		for(int i = 0; i <= maxIndex; i++) degrees[i] = 0;
 		int degree;
-		for (Node n : bfsOrder) {
-			degree = n.sons.size() + (n == root ? 0 : 1);
+		for (int vertex : bfsOrder) {
+			degree = numberOfSons(vertex) + (vertex == root ? 0 : 1);
 			if (degree <= maxIndex)
 				degrees[degree]++;
 		}
 		return degrees;
 	}
-	
-	
+
+
 	public int getRadius() {
-		return root.height;
+		return height[root];
 	}
-	
-	
+
+
 	public int getDiameter() {
-		return root.height + root.secondMaxHeight() + 1;
+		return height[root] + secondMaxHeight(root) + 1;
 	}
-	
-	
-	private Node getCentroidNode() {
-		Node centroid = root;
-		while (centroid.maxSizeSon().size * 2 > order)
-			centroid = centroid.maxSizeSon();
+
+
+	private int getCentroidVertex() {
+		int centroid = root;
+		while (order > 1 && size[maxSizeSon(centroid)] * 2 > order)
+			centroid = maxSizeSon(centroid);
 		return centroid;
 	}
-	
+
 	public int getDistanceFromCenterToCentroid() {
-		return getCentroidNode().depth;
+		return depth[getCentroidVertex()];
 	}
-	
+
 	public double getAverageEccentricity() {
-		int sumEccentricity = 0;
-		for (Node n : bfsOrder) 
-			sumEccentricity = sumEccentricity + n.depth;
+		long sumEccentricity = 0;
+		for (int vertex : bfsOrder)
+			sumEccentricity = sumEccentricity + depth[vertex];
 		return (double) sumEccentricity / (double) order;
 	}
-	
-	
+
+
 	// Node accessors
-	
-	public int getRoot() { return root.vertex; }
-	
-	public int getHeight(int vertex) { 
-		return nodes[vertex].height;
+
+	public int getRoot() { return root; }
+
+	public int getHeight(int vertex) {
+		return height[vertex];
 	}
-	
+
 	public int getDepth(int vertex) {
-		return nodes[vertex].depth;
+		return depth[vertex];
 	}
-	
+
 	public int getSubtreeSize(int vertex) {
-		return nodes[vertex].size;
+		return size[vertex];
+	}
+
+	public int getParent(int vertex) {
+		return parent[vertex];
 	}
-	
+
 	public int getCentroid() {
-		return getCentroidNode().vertex;
+		return getCentroidVertex();
 	}
-	
-	
+
+
 	// printers
-	
+
 	public void printStats() {
 		System.out.println("Order: " + order);
 		System.out.println("Diameter: " + getDiameter());
 		System.out.println("Radius: " + getRadius());
 		System.out.println("Wiener index: " + getWienerIndex());
-		System.out.println("Center to centroid: " 
+		System.out.println("Center to centroid: "
 							+ getDistanceFromCenterToCentroid());
-		System.out.println("Average eccentricity: " 
+		System.out.println("Average eccentricity: "
 						    + getAverageEccentricity());
 	}
 
-	
-	
+
+
 	public void printNode(int vertex) {
-		nodes[vertex].print();
+		System.out.print("Node " + vertex + ", sons: ");
+		for (int son = firstChild[vertex]; son >= 0; son = nextSibling[son]) {
+			System.out.print(son + " ");
+		}
+		System.out.println("(height: " + height[vertex]
+						 + ", size: " + size[vertex]
+						 + ", 2nd height: " + secondMaxHeight(vertex)
+						 + ", depth: " + depth[vertex]
+						 + ")");
 	}
-	
+
 	public void printTree() {
-		for (Node n : bfsOrder) n.print();
+		for (int vertex : bfsOrder) printNode(vertex);
+	}
+
+
+	// Rerooting
+
+	/**
+	 * Makes vertex the root, in O(order) and without allocation:
+	 * the parent pointers on the path from vertex to the old root are reversed,
+	 * then sons, bfs order, heights, sizes and depths are recomputed in place.
+	 * Private: getRadius, getDiameter and the other invariants read the heights
+	 * and depths from the root, and are only correct when the root is the center.
+	 */
+	private void reroot(int vertex) {
+		int previous = -1;
+		int current = vertex;
+		while (current >= 0) {
+			int next = parent[current];
+			parent[current] = previous;
+			previous = current;
+			current = next;
+		}
+		root = vertex;
+		linkSons();
+		resetBfsOrdering();
+		computeAllHeights();
+		computeAllSizes();
+		computeAllDepths();
 	}
-	
+
 	// Below to end: building the tree from list of arcs.
 	// We want the center of the tree as root.
-	// 1) createTree: Gets a tree encoded in the Node structure.
-	//    This is done by using bfs algorithm on the graph of edges.
-	//    From the bfs list of arcs, creates each node and attach it to father
-	//    Stores each node in an array indexed by vertices.
+	// 1) buildFrom: gets the parent of every vertex
+	//    by using bfs algorithm on the CSR graph of edges,
+	//    and links every vertex to its father.
 	// 2) Computes the height of every node, in inverse bfs order.
-	// 3) rerootTree: Moves root toward center.
-	//    the two highest sons must have almost the same height.
+	// 3) findCenter: moves toward center.
+	//    the two highest branches must have almost the same height.
 	//    it detects if it is balanced,
-	//    and if not moves the root to the highest son (swapRootWith)
-	// 4) resetBfsOrdering : recomputes bfs and inverse bfs order.
-	//    this time, a bfs on the node structure is enough
-	// 5) Computes height, size and depth of every node.
-	
-	private void resetBfsOrdering() {
-		Queue<Node> stack = new LinkedList<Node>();
-		stack.offer(root);
-		bfsOrder.clear();
-		inverseBfsOrder.clear();
-		Node current;
-		while (!stack.isEmpty()) {
-			current = stack.poll();
-			for (Node son : current.sons) stack.offer(son);
-			bfsOrder.add(current);
-			inverseBfsOrder.add(current);
+	//    and if not moves to the highest son,
+	//    keeping the height of the branch left behind.
+	// 4) reroot: reverses the parents on the way to the center,
+	//    recomputes bfs order, then height, size and depth of every node.
+
+	private void linkSons() {
+		Arrays.fill(firstChild, -1);
+		for (int vertex = order - 1; vertex >= 0; vertex--) {
+			int father = parent[vertex];
+			if (father < 0) continue;
+			nextSibling[vertex] = firstChild[father];
+			firstChild[father] = vertex;
 		}
-		Collections.reverse(inverseBfsOrder);
-		
 	}
-	
-	
-	private void swapRootWith(Node son) {
-		root.sons.remove(son);
-		root.setHeight();
-		son.height = Math.max(root.height + 1, son.height);
-		son.sons.add(root);
-		root = son;
+
+	private void resetBfsOrdering() {
+		int tail = 0;
+		bfsOrder[tail++] = root;
+		for (int head = 0; head < tail; head++) {
+			int current = bfsOrder[head];
+			for (int son = firstChild[current]; son >= 0; son = nextSibling[son])
+				bfsOrder[tail++] = son;
+		}
 	}
 
-		
-	private boolean isUnbalanced() {
-		return root.height > root.secondMaxHeight() + 2;
+
+	private int findCenter() {
+		int center = root;
+		int up = 0; // length of the branch through the father of center
+		while (true) {
+			int son = maxHeightSon(center);
+			int highest = (son < 0 ? 0 : height[son] + 1);
+			int second = secondMaxHeight(center) + 1;
+			int top1 = Math.max(highest, up);
+			int top2 = (up >= highest ? highest : Math.max(second, up));
+			if (top1 <= top2 + 1 || up >= highest) return center;
+			up = 1 + Math.max(up, second);
+			center = son;
+		}
 	}
-	
-	private void rerootTree() {
+
+
+	private void buildFrom(IAdjacency tree, int root) {
+		parent = new int[order];
+		firstChild = new int[order];
+		nextSibling = new int[order];
+		height = new int[order];
+		size = new int[order];
+		depth = new int[order];
+		bfsOrder = BreadthFirstSearch.generateTree(tree, root, parent, new int[order]);
+		this.root = root;
+		linkSons();
+
 		computeAllHeights();
-		while (isUnbalanced()) 
-			swapRootWith(root.maxHeightSon());
-		resetBfsOrdering();
-	}
-	
-	
-	private void createNode(Node nodes[], Arc arc) {
-		int son = arc.getDest();
-		int father = arc.getSource();
-		nodes[son] = new Node(son);
-		nodes[father].sons.add(nodes[son]);
-	}	
-
-	
-	private void createTree(int root, ArrayList<Arc> sortedArcs) {
-		this.bfsOrder = new ArrayList<>(order);
-		this.inverseBfsOrder = new ArrayList<>(order);
-		nodes = new Node[order];
-		nodes[root] = new Node(root);
-
-		this.bfsOrder.add(nodes[root]);
-		for (Arc arc : sortedArcs) {
-			createNode(nodes,arc);	
-			this.bfsOrder.add(nodes[arc.getDest()]);
-		}
-		
-		inverseBfsOrder.addAll(bfsOrder);
-		Collections.reverse(inverseBfsOrder);
-		this.root = nodes[root];
+		reroot(findCenter());
 	}
-	
-			
+
+
 	public RootedTree(ArrayList<Edge> edges, int root) {
 		this.order = edges.size() + 1;
-		Graph graph = new Graph(order);
-		for (Edge e : edges) graph.addEdge(e);
+		buildFrom(CsrGraph.fromEdges(order, edges), root);
+	}
 
-		createTree(root, BreadthFirstSearch.generateTree(graph, root));
-		
-		rerootTree();
-		computeAllHeights();
-		computeAllSizes();
-		computeAllDepths();
+
+	/**
+	 * Builds the tree formed by some edges of a graph on vertices 0 .. order-1.
+	 * @param treeEdges the ids of the tree edges in graph
+	 */
+	public RootedTree(IAdjacency graph, int[] treeEdges, int root) {
+		this.order = treeEdges.length + 1;
+		EdgeTable edges = new EdgeTable(treeEdges.length, WeightColumn.none());
+		for (int e : treeEdges) edges.add(graph.edgeSource(e), graph.edgeDest(e));
+		buildFrom(new CsrGraph(order, edges), root);
 	}
-	
-		
-	
-	
+
+
 }
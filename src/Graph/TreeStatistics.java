@@ -0,0 +1,63 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * Invariants of a tree, as computed by TreeStatisticsKernel.
+ * Center, radius and average eccentricity are those of RootedTree built on the same
+ * tree and root: when the tree has two centers, the one closer to the root is used.
+ */
+public class TreeStatistics {
+
+    private final int order;
+    private final int center;
+    private final int radius;
+    private final int diameter;
+    private final long wienerIndex;
+    private final double averageEccentricity;
+    private final int[] degreeCounts; // degreeCounts[d]: number of vertices of degree d
+
+    TreeStatistics(int order, int center, int radius, int diameter, long wienerIndex,
+                   double averageEccentricity, int[] degreeCounts) {
+        this.order = order;
+        this.center = center;
+        this.radius = radius;
+        this.diameter = diameter;
+        this.wienerIndex = wienerIndex;
+        this.averageEccentricity = averageEccentricity;
+        this.degreeCounts = degreeCounts;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public int getCenter() {
+        return center;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getDiameter() {
+        return diameter;
+    }
+
+    // sum of distances between all pairs of vertices.
+    public long getWienerIndex() {
+        return wienerIndex;
+    }
+
+    // average distance from the center to the vertices.
+    public double getAverageEccentricity() {
+        return averageEccentricity;
+    }
+
+    /**
+     * @return the number of vertices of each degree from 0 to min(maxDegree, order-1)
+     */
+    public int[] getDegreeDistribution(int maxDegree) {
+        return Arrays.copyOf(degreeCounts, 1 + Math.min(maxDegree, order - 1));
+    }
+}
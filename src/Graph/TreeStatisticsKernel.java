@@ -0,0 +1,129 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * Computes the invariants of a tree straight from its parent array, as written
+ * by a TreeSampler, without building a RootedTree.
+ * One pass groups the children by parent (as in a CSR graph), a BFS pass gives
+ * depths and degrees, a pass in inverse BFS order gives subtree sizes, the Wiener index
+ * and the two highest branches below every vertex, and a walk from the root
+ * towards the highest branch finds the center, carrying the height of the branch
+ * above the current vertex and the sum of the distances to it.
+ * Scratch arrays are kept between calls; a kernel must not be used by several threads at once.
+ */
+public class TreeStatisticsKernel {
+    private int[] offsets = new int[1];
+    private int[] next = new int[0];
+    private int[] children = new int[0];
+    private int[] queue = new int[0];
+    private int[] depth = new int[0];
+    private int[] size = new int[0];
+    private int[] best = new int[0];      // length of the highest branch below a vertex
+    private int[] second = new int[0];    // length of the second highest one, 0 if none
+    private int[] bestChild = new int[0]; // child starting the highest branch
+    private int[] degreeCounts = new int[1];
+
+    /**
+     * @param parent parent of each vertex in a tree, -1 for the root and for vertices out of the tree
+     * @param root the root of the tree
+     * @param upperBound vertices are 0 .. upperBound-1
+     */
+    public TreeStatistics compute(int[] parent, int root, int upperBound) {
+        ensureCapacity(upperBound);
+
+        // Group the children by parent
+        Arrays.fill(offsets, 0, upperBound + 1, 0);
+        int order = 1;
+        for (int v = 0; v < upperBound; v++) {
+            if (parent[v] < 0) continue;
+            offsets[parent[v] + 1]++;
+            order++;
+        }
+        for (int v = 0; v < upperBound; v++) offsets[v + 1] += offsets[v];
+        System.arraycopy(offsets, 0, next, 0, upperBound);
+        for (int v = 0; v < upperBound; v++) {
+            if (parent[v] >= 0) children[next[parent[v]]++] = v;
+        }
+
+        // BFS order: depths, degrees and the sum of depths
+        Arrays.fill(degreeCounts, 0);
+        long depthSum = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        depth[root] = 0;
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            size[v] = 1;
+            best[v] = 0;
+            second[v] = 0;
+            bestChild[v] = -1;
+            depthSum += depth[v];
+            degreeCounts[offsets[v + 1] - offsets[v] + (v == root ? 0 : 1)]++;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int child = children[i];
+                depth[child] = depth[v] + 1;
+                queue[tail++] = child;
+            }
+        }
+        if (tail != order)
+            throw new IllegalArgumentException("Parent array is not a tree rooted at " + root);
+
+        // Inverse BFS order: sizes, Wiener index and highest branches
+        long wienerIndex = 0;
+        for (int i = tail - 1; i > 0; i--) {
+            int v = queue[i];
+            int p = parent[v];
+            size[p] += size[v];
+            wienerIndex += (long) size[v] * (order - size[v]);
+            int branch = best[v] + 1;
+            if (branch > best[p]) {
+                second[p] = best[p];
+                best[p] = branch;
+                bestChild[p] = v;
+            } else if (branch > second[p]) {
+                second[p] = branch;
+            }
+        }
+
+        // Walk towards the center, while the highest branch is longer than the second one plus one
+        int v = root;
+        int up = 0; // length of the branch through the parent of v
+        int top1;
+        int top2;
+        while (true) {
+            if (up >= best[v]) {
+                top1 = up;
+                top2 = best[v];
+            } else {
+                top1 = best[v];
+                top2 = Math.max(second[v], up);
+            }
+            // the highest branch never goes back up, as the walk started at the root
+            if (top1 <= top2 + 1 || up >= best[v]) break;
+            int c = bestChild[v];
+            up = 1 + Math.max(up, second[v]);
+            depthSum += order - 2L * size[c];
+            v = c;
+        }
+
+        int maxDegree = order - 1;
+        while (maxDegree > 0 && degreeCounts[maxDegree] == 0) maxDegree--;
+        return new TreeStatistics(order, v, top1, top1 + top2, wienerIndex,
+                (double) depthSum / order, Arrays.copyOf(degreeCounts, maxDegree + 1));
+    }
+
+    private void ensureCapacity(int upperBound) {
+        if (next.length >= upperBound) return;
+        offsets = new int[upperBound + 1];
+        next = new int[upperBound];
+        children = new int[upperBound];
+        queue = new int[upperBound];
+        depth = new int[upperBound];
+        size = new int[upperBound];
+        best = new int[upperBound];
+        second = new int[upperBound];
+        bestChild = new int[upperBound];
+        degreeCounts = new int[upperBound + 1];
+    }
+}
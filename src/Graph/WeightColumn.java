@@ -0,0 +1,121 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * Weights of the edges of an EdgeTable, indexed by edge id.
+ * Stored as a double[], a float[] (half the memory), or not stored at all
+ * until a weight is set.
+ */
+public abstract class WeightColumn {
+
+    public abstract double get(int edge);
+
+    public abstract void set(int edge, double weight);
+
+    abstract void ensureCapacity(int capacity);
+
+    abstract void trim(int size);
+
+    public static WeightColumn doubles(int capacity) {
+        return new Doubles(new double[capacity]);
+    }
+
+    public static WeightColumn floats(int capacity) {
+        return new Floats(new float[capacity]);
+    }
+
+    /**
+     * @return a column for unweighted edges: every weight reads as 0,
+     * until the first set allocates a double[]
+     */
+    public static WeightColumn none() {
+        return new None();
+    }
+
+
+    public static class Doubles extends WeightColumn {
+        public double[] values;
+
+        public Doubles(double[] values) {
+            this.values = values;
+        }
+
+        public double get(int edge) {
+            return values[edge];
+        }
+
+        public void set(int edge, double weight) {
+            values[edge] = weight;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity)
+                values = Arrays.copyOf(values, Math.max(capacity, 2 * values.length));
+        }
+
+        void trim(int size) {
+            if (values.length != size) values = Arrays.copyOf(values, size);
+        }
+    }
+
+
+    public static class Floats extends WeightColumn {
+        public float[] values;
+
+        public Floats(float[] values) {
+            this.values = values;
+        }
+
+        public double get(int edge) {
+            return values[edge];
+        }
+
+        public void set(int edge, double weight) {
+            values[edge] = (float) weight;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity)
+                values = Arrays.copyOf(values, Math.max(capacity, 2 * values.length));
+        }
+
+        void trim(int size) {
+            if (values.length != size) values = Arrays.copyOf(values, size);
+        }
+    }
+
+
+    public static class None extends WeightColumn {
+        private int capacity;
+        // null until the first set; volatile since weights may be set from several threads
+        private volatile double[] values;
+
+        public double get(int edge) {
+            double[] weights = values;
+            return weights == null ? 0 : weights[edge];
+        }
+
+        public void set(int edge, double weight) {
+            double[] weights = values;
+            if (weights == null) weights = widen();
+            weights[edge] = weight;
+        }
+
+        private synchronized double[] widen() {
+            if (values == null) values = new double[capacity];
+            return values;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (this.capacity >= capacity) return;
+            this.capacity = capacity;
+            if (values != null) values = Arrays.copyOf(values, capacity);
+        }
+
+        void trim(int size) {
+            capacity = size;
+            if (values != null && values.length != size) values = Arrays.copyOf(values, size);
+        }
+    }
+}
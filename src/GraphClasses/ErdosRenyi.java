@@ -1,38 +1,149 @@
 package GraphClasses;
 import Graph.* ;
-import RandomTreeAlgos.BreadthFirstSearch;
 
-import java.util.ArrayList;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 
 public class ErdosRenyi {
 
 	private final static Random gen = new Random();
+	// number of row blocks of the parallel sampler; fixed so that the result only depends on the seed
+	private final static int BLOCKS = 256;
+
 	public Graph graph;
 	private int order;
 	private double edgeProbability;
 	
 	
-	private boolean isConnected() {
-		if (graph == null) return false;
-		ArrayList<Arc> tree = BreadthFirstSearch.generateTree(graph, 0);
-		return tree.size() == order - 1;
-		
-	}
-	
-	private void genGraph() {
-		graph = new Graph(order);
-		for (int i = 0; i < order; i++)
-			for (int j = i+1; j < order; j++) {
-				if (gen.nextDouble() < edgeProbability)
-					graph.addEdge(new Edge(i,j,0));
-			}
-	}
-	
 	public ErdosRenyi(int order, float expectedAverageDegree) {
 		this.edgeProbability = Math.max(1.5, expectedAverageDegree) / (order-1);
 		this.order = order;
-		while (!isConnected()) genGraph();		
+		EdgeTable edges = sampleConnected(order, edgeProbability, gen.nextLong());
+		graph = new Graph(order);
+		for (int e = 0; e < edges.size(); e++)
+			graph.addEdge(new Edge(edges.source[e], edges.dest[e], 0));
+	}
+
+	/**
+	 * Samples G(n,p) in O(n + m): instead of drawing a number for every pair,
+	 * draws the geometric number of pairs skipped before the next edge.
+	 * Edges are produced in lexicographic order, source < dest.
+	 */
+	public static EdgeTable sample(int order, double edgeProbability, SplittableRandom rng) {
+		return sampleRows(order, edgeProbability, 0, order, rng);
+	}
+
+	/**
+	 * Samples G(n,p) in parallel, by blocks of rows holding about the same number of pairs.
+	 * Each block has its own random stream split from the seed, so the result
+	 * only depends on the seed, not on the number of threads.
+	 */
+	public static EdgeTable sampleParallel(int order, double edgeProbability, long seed) {
+		int blocks = Math.max(1, Math.min(BLOCKS, order));
+		int[] firstRow = rowBlocks(order, blocks);
+		SplittableRandom root = new SplittableRandom(seed);
+		SplittableRandom[] rngs = new SplittableRandom[blocks];
+		for (int b = 0; b < blocks; b++)
+			rngs[b] = root.split();
+
+		EdgeTable[] parts = new EdgeTable[blocks];
+		IntStream.range(0, blocks).parallel().forEach(b ->
+				parts[b] = sampleRows(order, edgeProbability, firstRow[b], firstRow[b + 1], rngs[b]));
+
+		int size = 0;
+		for (EdgeTable part : parts) size = Math.addExact(size, part.size());
+		int[] source = new int[size];
+		int[] dest = new int[size];
+		int at = 0;
+		for (EdgeTable part : parts) {
+			System.arraycopy(part.source, 0, source, at, part.size());
+			System.arraycopy(part.dest, 0, dest, at, part.size());
+			at += part.size();
+		}
+		return new EdgeTable(source, dest, WeightColumn.none());
+	}
+
+	/**
+	 * Samples G(n,p) conditioned on being connected, by rejection.
+	 * Each attempt costs O(n + m): a parallel sampling and a union-find pass.
+	 * Attempts only succeed with reasonable probability when p is above ln(n)/n.
+	 */
+	public static EdgeTable sampleConnected(int order, double edgeProbability, long seed) {
+		SplittableRandom seeds = new SplittableRandom(seed);
+		EdgeTable edges;
+		do {
+			edges = sampleParallel(order, edgeProbability, seeds.nextLong());
+		} while (!isConnected(order, edges));
+		return edges;
+	}
+
+	/**
+	 * @return the first row of each block, and order at the end,
+	 * so that each block holds about the same number of pairs
+	 */
+	private static int[] rowBlocks(int order, int blocks) {
+		int[] firstRow = new int[blocks + 1];
+		long pairs = (long) order * (order - 1) / 2;
+		long seen = 0;
+		int b = 1;
+		for (int row = 0; row < order && b < blocks; row++) {
+			while (b < blocks && seen >= pairs * b / blocks)
+				firstRow[b++] = row;
+			seen += order - 1 - row;
+		}
+		while (b <= blocks) firstRow[b++] = order;
+		return firstRow;
+	}
+
+	/**
+	 * Samples the edges (i,j), i < j, of G(n,p) with fromRow <= i < toRow.
+	 */
+	private static EdgeTable sampleRows(int order, double edgeProbability,
+										int fromRow, int toRow, SplittableRandom rng) {
+		long pairs = 0;
+		for (int row = fromRow; row < toRow; row++) pairs += order - 1 - row;
+		long expected = (long) (1.1 * edgeProbability * pairs) + 16;
+		EdgeTable edges = new EdgeTable((int) Math.min(expected, Integer.MAX_VALUE - 8), WeightColumn.none());
+		if (edgeProbability <= 0) return edges;
+
+		double logSkip = Math.log1p(-Math.min(edgeProbability, 1));
+		long maxSkip = pairs;
+		int row = fromRow;
+		long column = row; // the next candidate pair is (row, column+1)
+		while (row < toRow) {
+			long skip = Math.min(maxSkip, (long) (Math.log1p(-rng.nextDouble()) / logSkip));
+			column += 1 + skip;
+			while (column >= order && row < toRow) {
+				column += row + 2 - order;
+				row++;
+			}
+			if (row < toRow) edges.add(row, (int) column);
+		}
+		return edges;
+	}
+
+	private static boolean isConnected(int order, EdgeTable edges) {
+		int[] parent = new int[order];
+		for (int i = 0; i < order; i++) parent[i] = i;
+		int components = order;
+		for (int e = 0; e < edges.size() && components > 1; e++) {
+			int a = find(parent, edges.source[e]);
+			int b = find(parent, edges.dest[e]);
+			if (a != b) {
+				parent[Math.max(a, b)] = Math.min(a, b);
+				components--;
+			}
+		}
+		return components <= 1;
+	}
+
+	private static int find(int[] parent, int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
 	}
 }
@@ -0,0 +1,111 @@
+package GraphClasses;
+
+import Graph.IAdjacency;
+
+/**
+ * Complete graph whose edges are never stored: the k-th neighbor of v
+ * is k if k < v, k+1 otherwise, and edge {i,j} with i < j has id j(j-1)/2 + i.
+ * Memory use is constant, whatever the order.
+ * Edge ids are ints, so the order is at most 65536.
+ */
+public class ImplicitComplete implements IAdjacency {
+
+    public final int order;
+    private final int edgeCardinality;
+
+    public ImplicitComplete(int order) {
+        if (order < 1)
+            throw new IllegalArgumentException("Order must be positive");
+        this.order = order;
+        this.edgeCardinality = cliqueSize(order);
+    }
+
+    /**
+     * @return the number of edges of a clique of the given order
+     * @throws IllegalArgumentException if it does not fit in an int
+     */
+    static int cliqueSize(int order) {
+        long edges = (long) order * (order - 1) / 2;
+        if (edges > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many edges for int ids: " + edges);
+        return (int) edges;
+    }
+
+    /**
+     * @return the id of edge {i,j} in a clique, i != j
+     */
+    static int cliqueEdge(int i, int j) {
+        int low = Math.min(i, j);
+        int high = Math.max(i, j);
+        return (int) ((long) high * (high - 1) / 2) + low;
+    }
+
+    /**
+     * @return the larger endpoint of an edge of a clique
+     */
+    static int cliqueHigh(int edge) {
+        int high = (int) ((1 + Math.sqrt(1 + 8.0 * edge)) / 2);
+        // corrects the rounding of the square root
+        while ((long) high * (high - 1) / 2 > edge) high--;
+        while ((long) (high + 1) * high / 2 <= edge) high++;
+        return high;
+    }
+
+    /**
+     * @return the smaller endpoint of an edge of a clique
+     */
+    static int cliqueLow(int edge) {
+        int high = cliqueHigh(edge);
+        return edge - (int) ((long) high * (high - 1) / 2);
+    }
+
+    @Override
+    public int upperBound() {
+        return order;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public boolean isVertex(int vertex) {
+        return vertex >= 0 && vertex < order;
+    }
+
+    @Override
+    public int edgeCardinality() {
+        return edgeCardinality;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return order - 1;
+    }
+
+    @Override
+    public int neighbor(int vertex, int k) {
+        return (k < vertex ? k : k + 1);
+    }
+
+    @Override
+    public int incidentEdge(int vertex, int k) {
+        return cliqueEdge(vertex, neighbor(vertex, k));
+    }
+
+    @Override
+    public int edgeSource(int edge) {
+        return cliqueLow(edge);
+    }
+
+    @Override
+    public int edgeDest(int edge) {
+        return cliqueHigh(edge);
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return 0;
+    }
+}
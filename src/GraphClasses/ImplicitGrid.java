@@ -0,0 +1,201 @@
+package GraphClasses;
+
+import Graph.IAdjacency;
+
+/**
+ * Grid graph (2D or 3D, optionally wrapping around as a torus) whose edges
+ * are never stored: neighbors and edge ids are computed from the coordinates.
+ * Memory use is constant, whatever the size of the grid.
+ *
+ * Vertex (x,y,z) has id x + width * (y + height * z).
+ * Edges are numbered axis by axis: first the edges (x,y,z)-(x+1,y,z),
+ * then (x,y,z)-(x,y+1,z), then (x,y,z)-(x,y,z+1), each group in vertex order.
+ * An axis of length 1 or 2 never wraps around, as it would create loops or double edges.
+ * Ids are ints, so the grid may have up to Integer.MAX_VALUE edges.
+ */
+public class ImplicitGrid implements IAdjacency {
+
+    public final int width;
+    public final int height;
+    public final int depth;
+    public final boolean torus;
+
+    private final int order;
+    private final int edgeCardinality;
+
+    private final int[] size = new int[3];
+    private final int[] stride = new int[3];
+    private final boolean[] wraps = new boolean[3];
+    private final int[] lines = new int[3];        // number of edges along an axis, per line of the grid
+    private final int[] axisOffset = new int[4];   // id of the first edge along each axis
+    private final int[][] edgeStride = new int[3][3]; // strides of the edge numbering, per axis
+
+    public ImplicitGrid(int width, int height) {
+        this(width, height, 1, false);
+    }
+
+    public ImplicitGrid(int width, int height, boolean torus) {
+        this(width, height, 1, torus);
+    }
+
+    public ImplicitGrid(int width, int height, int depth, boolean torus) {
+        if (width < 1 || height < 1 || depth < 1)
+            throw new IllegalArgumentException("Grid dimensions must be positive");
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.torus = torus;
+
+        long vertices = (long) width * height * depth;
+        if (vertices > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many vertices for int ids: " + vertices);
+        order = (int) vertices;
+
+        size[0] = width;
+        size[1] = height;
+        size[2] = depth;
+        stride[0] = 1;
+        stride[1] = width;
+        stride[2] = width * height;
+        long edges = 0;
+        for (int a = 0; a < 3; a++) {
+            wraps[a] = torus && size[a] >= 3;
+            lines[a] = wraps[a] ? size[a] : size[a] - 1;
+            axisOffset[a] = (int) Math.min(edges, Integer.MAX_VALUE);
+            edges += vertices / size[a] * lines[a];
+            int s = 1;
+            for (int b = 0; b < 3; b++) {
+                edgeStride[a][b] = s;
+                s *= (b == a ? lines[a] : size[b]);
+            }
+        }
+        if (edges > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many edges for int ids: " + edges);
+        edgeCardinality = (int) edges;
+        axisOffset[3] = edgeCardinality;
+    }
+
+    public int abscissaOfVertex(int vertex) {
+        return vertex % width;
+    }
+
+    public int ordinateOfVertex(int vertex) {
+        return (vertex / width) % height;
+    }
+
+    public int heightOfVertex(int vertex) {
+        return vertex / (width * height);
+    }
+
+    public int vertexOfCoordinates(int x, int y, int z) {
+        return x + width * (y + height * z);
+    }
+
+    private int coordinate(int vertex, int axis) {
+        return (vertex / stride[axis]) % size[axis];
+    }
+
+    // Directions: 2 * axis for the step backwards, 2 * axis + 1 for the step forwards.
+
+    private boolean hasDirection(int vertex, int direction) {
+        int axis = direction >> 1;
+        if (size[axis] == 1) return false;
+        if (wraps[axis]) return true;
+        int c = coordinate(vertex, axis);
+        return (direction & 1) == 1 ? c < size[axis] - 1 : c > 0;
+    }
+
+    private int step(int vertex, int direction) {
+        int axis = direction >> 1;
+        int c = coordinate(vertex, axis);
+        int next = (direction & 1) == 1 ? c + 1 : c - 1;
+        if (next == size[axis]) next = 0;
+        if (next < 0) next = size[axis] - 1;
+        return vertex + (next - c) * stride[axis];
+    }
+
+    /**
+     * @return the id of the edge from vertex to its successor along axis
+     */
+    private int forwardEdge(int vertex, int axis) {
+        int id = axisOffset[axis];
+        for (int b = 0; b < 3; b++)
+            id += coordinate(vertex, b) * edgeStride[axis][b];
+        return id;
+    }
+
+    private int kthDirection(int vertex, int k) {
+        for (int direction = 0; direction < 6; direction++) {
+            if (hasDirection(vertex, direction) && k-- == 0) return direction;
+        }
+        throw new IndexOutOfBoundsException("Vertex " + vertex + " has no neighbor " + k);
+    }
+
+    private int axisOfEdge(int edge) {
+        if (edge < axisOffset[1]) return 0;
+        return (edge < axisOffset[2] ? 1 : 2);
+    }
+
+    @Override
+    public int upperBound() {
+        return order;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public boolean isVertex(int vertex) {
+        return vertex >= 0 && vertex < order;
+    }
+
+    @Override
+    public int edgeCardinality() {
+        return edgeCardinality;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        int degree = 0;
+        for (int direction = 0; direction < 6; direction++)
+            if (hasDirection(vertex, direction)) degree++;
+        return degree;
+    }
+
+    @Override
+    public int neighbor(int vertex, int k) {
+        return step(vertex, kthDirection(vertex, k));
+    }
+
+    @Override
+    public int incidentEdge(int vertex, int k) {
+        int direction = kthDirection(vertex, k);
+        int axis = direction >> 1;
+        if ((direction & 1) == 1) return forwardEdge(vertex, axis);
+        return forwardEdge(step(vertex, direction), axis);
+    }
+
+    @Override
+    public int edgeSource(int edge) {
+        int axis = axisOfEdge(edge);
+        int index = edge - axisOffset[axis];
+        int vertex = 0;
+        for (int b = 2; b >= 0; b--) {
+            vertex += (index / edgeStride[axis][b]) * stride[b];
+            index %= edgeStride[axis][b];
+        }
+        return vertex;
+    }
+
+    @Override
+    public int edgeDest(int edge) {
+        return step(edgeSource(edge), 2 * axisOfEdge(edge) + 1);
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return 0;
+    }
+}
@@ -0,0 +1,133 @@
+package GraphClasses;
+
+import Graph.IAdjacency;
+
+import java.util.Random;
+
+/**
+ * Lollipop graph, shaped as in Lollipop, whose clique is implicit:
+ * a path on the first t = order/3 vertices of a random permutation,
+ * attached to a clique on the remaining vertices.
+ * Only the permutation and its inverse are stored.
+ *
+ * Edge i < t is the path edge between the i-th and (i+1)-th vertices of the
+ * permutation; the clique edges follow, numbered as in ImplicitComplete
+ * by their positions in the clique.
+ */
+public class ImplicitLollipop implements IAdjacency {
+
+    public final int order;
+    private final int pathLength;
+    private final int cliqueOrder;
+    private final int edgeCardinality;
+
+    private final int[] permutation;
+    private final int[] position;
+
+    public ImplicitLollipop(int order) {
+        this(order, new Random());
+    }
+
+    public ImplicitLollipop(int order, Random rng) {
+        if (order < 1)
+            throw new IllegalArgumentException("Order must be positive");
+        this.order = order;
+        this.pathLength = order / 3;
+        this.cliqueOrder = order - pathLength;
+        long edges = (long) pathLength + ImplicitComplete.cliqueSize(cliqueOrder);
+        if (edges > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many edges for int ids: " + edges);
+        this.edgeCardinality = (int) edges;
+
+        permutation = new int[order];
+        for (int i = 0; i < order; i++) permutation[i] = i;
+        for (int i = order - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        position = new int[order];
+        for (int i = 0; i < order; i++) position[permutation[i]] = i;
+    }
+
+    /**
+     * @return whether the vertex belongs to the clique (the vertex joining
+     * the path to the clique does)
+     */
+    public boolean isInClique(int vertex) {
+        return position[vertex] >= pathLength;
+    }
+
+    @Override
+    public int upperBound() {
+        return order;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public boolean isVertex(int vertex) {
+        return vertex >= 0 && vertex < order;
+    }
+
+    @Override
+    public int edgeCardinality() {
+        return edgeCardinality;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        int p = position[vertex];
+        if (p < pathLength) return (p > 0 ? 2 : 1);
+        return cliqueOrder - 1 + (p == pathLength && p > 0 ? 1 : 0);
+    }
+
+    // Path neighbors come first: the previous vertex, then the next one on the path.
+
+    @Override
+    public int neighbor(int vertex, int k) {
+        int p = position[vertex];
+        if (p < pathLength)
+            return permutation[(p > 0 && k == 0) ? p - 1 : p + 1];
+        if (p == pathLength && p > 0) {
+            if (k == 0) return permutation[p - 1];
+            k--;
+        }
+        int q = p - pathLength;
+        return permutation[pathLength + (k < q ? k : k + 1)];
+    }
+
+    @Override
+    public int incidentEdge(int vertex, int k) {
+        int p = position[vertex];
+        if (p < pathLength)
+            return ((p > 0 && k == 0) ? p - 1 : p);
+        if (p == pathLength && p > 0) {
+            if (k == 0) return p - 1;
+            k--;
+        }
+        int q = p - pathLength;
+        return pathLength + ImplicitComplete.cliqueEdge(q, (k < q ? k : k + 1));
+    }
+
+    @Override
+    public int edgeSource(int edge) {
+        if (edge < pathLength) return permutation[edge];
+        return permutation[pathLength + ImplicitComplete.cliqueLow(edge - pathLength)];
+    }
+
+    @Override
+    public int edgeDest(int edge) {
+        if (edge < pathLength) return permutation[edge + 1];
+        return permutation[pathLength + ImplicitComplete.cliqueHigh(edge - pathLength)];
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return 0;
+    }
+}
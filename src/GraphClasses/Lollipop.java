@@ -3,6 +3,7 @@ import Graph.*;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 
 
 public class Lollipop {
@@ -10,11 +11,15 @@ public class Lollipop {
 	public Graph graph;
 	
 	public Lollipop(int order) {
+		this(order, new Random());
+	}
+
+	public Lollipop(int order, Random rng) {
 		graph = new Graph(order);
 		ArrayList<Integer> permutation = new ArrayList<>(order);
 		for (int i = 0; i < order; i++)
 			permutation.add(i);
-		Collections.shuffle(permutation);
+		Collections.shuffle(permutation, rng);
 		int t = order / 3;
 		for (int i = 0; i < t; i++)
 			graph.addEdge(new Edge(permutation.get(i),permutation.get(i+1),0));
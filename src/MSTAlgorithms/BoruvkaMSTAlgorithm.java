@@ -0,0 +1,109 @@
+package MSTAlgorithms;
+
+import Graph.IAdjacency;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Borůvka's algorithm, run in parallel on the common fork-join pool.
+ * Each round finds the lightest edge leaving every component, in parallel over
+ * the vertices, then adds all these edges to the MST at once, merging the
+ * components with a concurrent union-find. The number of components at least
+ * halves in each round, so there are at most log2(n) rounds of O(m) work.
+ * Ties between equal weights are broken by edge id, so that the lightest edges
+ * never form a cycle.
+ */
+public class BoruvkaMSTAlgorithm implements IMSTAlgorithm {
+
+    /**
+     * Union-find whose operations may run concurrently: roots are linked with a
+     * compare-and-set, the root of larger index under the other, and paths are
+     * halved as they are walked.
+     */
+    private static class ConcurrentUnionFind {
+        private final AtomicIntegerArray parent;
+
+        public ConcurrentUnionFind(int size) {
+            parent = new AtomicIntegerArray(size);
+            for (int i = 0; i < size; i++)
+                parent.set(i, i);
+        }
+
+        public int find(int x) {
+            while (true) {
+                int p = parent.get(x);
+                if (p == x) return x;
+                int grandParent = parent.get(p);
+                if (grandParent != p) parent.compareAndSet(x, p, grandParent);
+                x = grandParent;
+            }
+        }
+
+        public boolean union(int a, int b) {
+            while (true) {
+                int rootA = find(a);
+                int rootB = find(b);
+                if (rootA == rootB) return false;
+                if (rootA < rootB) {
+                    int tmp = rootA;
+                    rootA = rootB;
+                    rootB = tmp;
+                }
+                if (parent.compareAndSet(rootA, rootA, rootB)) return true;
+            }
+        }
+    }
+
+    @Override
+    public int[] computeMSTEdgeIds(IAdjacency graph) {
+        int n = graph.upperBound();
+        int m = graph.edgeCardinality();
+        double[] weights = new double[m];
+        IntStream.range(0, m).parallel().forEach(e -> weights[e] = graph.edgeWeight(e));
+
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+        int[] component = new int[n];
+        AtomicIntegerArray lightest = new AtomicIntegerArray(n);
+        int[] mst = new int[Math.max(0, graph.order() - 1)];
+        AtomicInteger size = new AtomicInteger(0);
+
+        while (size.get() < mst.length) {
+            IntStream.range(0, n).parallel().forEach(v -> {
+                component[v] = uf.find(v);
+                lightest.set(v, -1);
+            });
+
+            // lightest edge leaving each component
+            IntStream.range(0, n).parallel().forEach(v -> {
+                if (!graph.isVertex(v)) return;
+                int c = component[v];
+                for (int k = 0; k < graph.degree(v); k++) {
+                    if (component[graph.neighbor(v, k)] == c) continue;
+                    int e = graph.incidentEdge(v, k);
+                    int best = lightest.get(c);
+                    while ((best < 0 || lighter(weights, e, best)) && !lightest.compareAndSet(c, best, e))
+                        best = lightest.get(c);
+                }
+            });
+
+            // add them all; an edge chosen by both its components is only added once
+            int before = size.get();
+            IntStream.range(0, n).parallel().forEach(c -> {
+                int e = lightest.get(c);
+                if (e >= 0 && uf.union(graph.edgeSource(e), graph.edgeDest(e)))
+                    mst[size.getAndIncrement()] = e;
+            });
+            // the remaining components are not connected to each other
+            if (size.get() == before) break;
+        }
+
+        return Arrays.copyOf(mst, size.get());
+    }
+
+    private static boolean lighter(double[] weights, int e, int f) {
+        return weights[e] < weights[f] || (weights[e] == weights[f] && e < f);
+    }
+}
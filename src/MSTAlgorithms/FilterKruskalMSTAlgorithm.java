@@ -0,0 +1,136 @@
+package MSTAlgorithms;
+
+import Graph.IAdjacency;
+import Utilities.KeySort;
+
+import java.util.Arrays;
+
+/**
+ * Filter-Kruskal: Kruskal's algorithm, without sorting the edges that are never needed.
+ * The edges are partitioned around a pivot weight; the light part is processed first,
+ * then the heavy edges whose endpoints are already connected are filtered out
+ * before the rest is processed. Small enough ranges (no more edges than vertices)
+ * are sorted, in parallel, and run through plain Kruskal.
+ * On graphs with random weights, most heavy edges are filtered out unsorted.
+ */
+public class FilterKruskalMSTAlgorithm implements IMSTAlgorithm {
+
+    // ranges of at most this many edges are always sorted directly
+    private static final int MIN_SORTED_RANGE = 1 << 10;
+
+    private static class UnionFind {
+        private int[] parent;
+        private int[] rank;
+
+        public UnionFind(int size) {
+            parent = new int[size];
+            rank = new int[size];
+            for (int i = 0; i < size; i++)
+                parent[i] = i;
+        }
+
+        public int find(int x) {
+            if (parent[x] == x) return x;
+            parent[x] = find(parent[x]);
+            return parent[x];
+        }
+
+        public boolean union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) return false;
+
+            if (rank[rootA] < rank[rootB]) {
+                parent[rootA] = rootB;
+            } else if (rank[rootA] > rank[rootB]) {
+                parent[rootB] = rootA;
+            } else {
+                parent[rootB] = rootA;
+                rank[rootA]++;
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public int[] computeMSTEdgeIds(IAdjacency graph) {
+        return new Run(graph).compute();
+    }
+
+    /**
+     * State of one computation, so that a single instance may be used from several threads.
+     */
+    private static class Run {
+        private final IAdjacency graph;
+        private final int[] edges;
+        private final double[] weights;
+        private final UnionFind uf;
+        private final int[] mst;
+        private final int sortedRange;
+        private int size = 0;
+
+        Run(IAdjacency graph) {
+            // Edges are addressed by id, 0 .. m-1
+            int m = graph.edgeCardinality();
+            this.graph = graph;
+            this.edges = new int[m];
+            this.weights = new double[m];
+            for (int e = 0; e < m; e++) {
+                edges[e] = e;
+                weights[e] = graph.edgeWeight(e);
+            }
+            this.uf = new UnionFind(graph.upperBound());
+            this.mst = new int[Math.max(0, graph.order() - 1)];
+            this.sortedRange = Math.max(MIN_SORTED_RANGE, graph.order());
+        }
+
+        int[] compute() {
+            filterKruskal(0, edges.length);
+            return Arrays.copyOf(mst, size);
+        }
+
+        /**
+         * Adds to the MST the edges of the range [from, to) it needs.
+         */
+        private void filterKruskal(int from, int to) {
+            while (size < mst.length && from < to) {
+                if (to - from <= sortedRange) {
+                    kruskal(from, to);
+                    return;
+                }
+                int split = KeySort.partition(weights, edges, from, to);
+                filterKruskal(from, split);
+                from = split;
+                to = filter(from, to);
+            }
+        }
+
+        /**
+         * Sorts the range [from, to) and adds its edges to the MST in that order.
+         */
+        private void kruskal(int from, int to) {
+            KeySort.parallelSort(weights, edges, from, to);
+            for (int i = from; i < to && size < mst.length; i++) {
+                int e = edges[i];
+                if (uf.union(graph.edgeSource(e), graph.edgeDest(e)))
+                    mst[size++] = e;
+            }
+        }
+
+        /**
+         * Moves the edges of [from, to) whose endpoints are not yet connected to the front of the range.
+         * @return the end of the remaining edges
+         */
+        private int filter(int from, int to) {
+            int kept = from;
+            for (int i = from; i < to; i++) {
+                int e = edges[i];
+                if (uf.find(graph.edgeSource(e)) != uf.find(graph.edgeDest(e))) {
+                    weights[kept] = weights[i];
+                    edges[kept++] = e;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package MSTAlgorithms;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 import java.util.ArrayList;
 
 public interface IMSTAlgorithm {
@@ -10,5 +12,15 @@ public interface IMSTAlgorithm {
      * @param graph the input graph
      * @return a list of edges representing the MST
      */
-    ArrayList<Edge> computeMST(Graph graph);
+    default ArrayList<Edge> computeMST(Graph graph) {
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        return csr.toEdgeList(computeMSTEdgeIds(csr));
+    }
+
+    /**
+     * Computes the Minimum Spanning Tree (MST) of a given graph.
+     * @param graph the input graph
+     * @return the ids of the edges of the MST
+     */
+    int[] computeMSTEdgeIds(IAdjacency graph);
 }
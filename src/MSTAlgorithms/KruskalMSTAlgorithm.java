@@ -1,10 +1,9 @@
 package MSTAlgorithms;
 
-import Graph.Edge;
-import Graph.Graph;
+import Graph.IAdjacency;
+import Utilities.KeySort;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 public class KruskalMSTAlgorithm implements IMSTAlgorithm {
 
@@ -43,33 +42,29 @@ public class KruskalMSTAlgorithm implements IMSTAlgorithm {
     }
 
     @Override
-    public ArrayList<Edge> computeMST(Graph graph) {
-        // Collect all edges from the graph
-        ArrayList<Edge> allEdges = new ArrayList<>();
-        for (int v = 0; v < graph.upperBound; v++) {
-            if (graph.isVertex(v)) {
-                for (Edge e : graph.getIncidency().get(v)) {
-                    // To avoid duplication, only add edges where v is the source
-                    // This ensures each undirected edge is added once
-                    if (e.getSource() == v) {
-                        allEdges.add(e);
-                    }
-                }
-            }
+    public int[] computeMSTEdgeIds(IAdjacency graph) {
+        // Edges are addressed by id, 0 .. m-1
+        int m = graph.edgeCardinality();
+        int[] allEdges = new int[m];
+        double[] weights = new double[m];
+        for (int e = 0; e < m; e++) {
+            allEdges[e] = e;
+            weights[e] = graph.edgeWeight(e);
         }
 
         // Sort edges by weight
-        Collections.sort(allEdges);
+        KeySort.sort(weights, allEdges);
 
-        UnionFind uf = new UnionFind(graph.upperBound);
-        ArrayList<Edge> mst = new ArrayList<>();
-        for (Edge e : allEdges) {
-            if (uf.union(e.getSource(), e.getDest())) {
-                mst.add(e);
+        UnionFind uf = new UnionFind(graph.upperBound());
+        int[] mst = new int[Math.max(0, graph.order() - 1)];
+        int size = 0;
+        for (int e : allEdges) {
+            if (uf.union(graph.edgeSource(e), graph.edgeDest(e))) {
+                mst[size++] = e;
                 // If we have V-1 edges, MST is complete
-                if (mst.size() == graph.order - 1) break;
+                if (size == mst.length) break;
             }
         }
-        return mst;
+        return Arrays.copyOf(mst, size);
     }
 }
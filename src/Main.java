@@ -1,7 +1,7 @@
 import Generators.RandomMSTGenerator;
 import Graph.*;
 import GraphClasses.*;
-import MSTAlgorithms.KruskalMSTAlgorithm;
+import MSTAlgorithms.FilterKruskalMSTAlgorithm;
 import RandomTreeAlgos.*;
 import Graphics.*;
 import Utilities.RandomWeightAssigner;
@@ -9,9 +9,11 @@ import Utilities.RandomWeightAssigner;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.function.LongFunction;
 import javax.swing.JFrame;
 
 public class Main {
@@ -126,7 +128,7 @@ public class Main {
     // (3.1) Génération d'un MST aléatoire en attribuant des poids aléatoires puis Kruskal
     public static ArrayList<Edge> genRandomMSTTree(Graph graph) {
         RandomMSTGenerator generator = new RandomMSTGenerator(
-                new KruskalMSTAlgorithm(),
+                new FilterKruskalMSTAlgorithm(),
                 new RandomWeightAssigner()
         );
         return generator.generateRandomMST(graph);
@@ -157,6 +159,7 @@ public class Main {
         private long wienerSum = 0;
         private int degreesSum[] = {0, 0, 0, 0, 0};
         private int[] degrees;
+        private final TreeStatisticsKernel kernel = new TreeStatisticsKernel();
         long startingTime;
 
         public Stats(int noOfSamples) {
@@ -177,13 +180,24 @@ public class Main {
         }
 
         public void update(ArrayList<Edge> randomTree) {
-            RootedTree rooted = new RootedTree(randomTree, 0);
-            diameterSum = diameterSum + rooted.getDiameter();
-            eccentricitySum = eccentricitySum + rooted.getAverageEccentricity();
-            wienerSum = wienerSum + rooted.getWienerIndex();
+            int order = randomTree.size() + 1;
+            int[] parent = new int[order];
+            int[] parentEdge = new int[order];
+            BreadthFirstSearch.generateTree(CsrGraph.fromEdges(order, randomTree), 0, parent, parentEdge);
+            update(parent, 0, order);
+        }
 
-            degrees = rooted.getDegreeDistribution(4);
-            for (int j = 1; j < 5; j++) {
+        /**
+         * Statistiques d'un arbre donné par son tableau de parents, tel qu'écrit par un TreeSampler.
+         */
+        public void update(int[] parent, int root, int upperBound) {
+            TreeStatistics tree = kernel.compute(parent, root, upperBound);
+            diameterSum = diameterSum + tree.getDiameter();
+            eccentricitySum = eccentricitySum + tree.getAverageEccentricity();
+            wienerSum = wienerSum + tree.getWienerIndex();
+
+            degrees = tree.getDegreeDistribution(4);
+            for (int j = 1; j < degrees.length; j++) {
                 degreesSum[j] = degreesSum[j] + degrees[j];
             }
         }
@@ -223,32 +237,41 @@ public class Main {
     /**
      * Exemple de comparaison entre algorithmes.
      * Adaptez la liste d'algorithmes, le nombre d'échantillons, ou les metrics.
+     * Les échantillons sont tirés et analysés en parallèle ; à graine fixée,
+     * les résultats ne dépendent pas du nombre de cœurs.
      */
     private static void compareAlgorithms(Graph graph) {
         int samples = 50;
+        long seed = gen.nextLong();
         String[] algoNames = { "Aldous-Broder", "Wilson", "Random MST", "Random Traversal" };
 
         double[] avgDiameter = new double[algoNames.length];
         double[] avgEccentricity = new double[algoNames.length];
         double[] avgWiener = new double[algoNames.length];
 
-        for (int i = 0; i < algoNames.length; i++) {
-            long sumDiameter = 0;
-            double sumEccentricity = 0.0;
-            long sumWiener = 0;
+        // Une seule copie CSR du graphe, partagée en lecture par tous les générateurs
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        int n = csr.upperBound();
+        // Un noyau de statistiques par thread, ses tableaux étant réutilisés d'un arbre à l'autre
+        ThreadLocal<TreeStatisticsKernel> kernels = ThreadLocal.withInitial(TreeStatisticsKernel::new);
 
-            for (int s = 0; s < samples; s++) {
-                ArrayList<Edge> tree = generateTreeForAlgo(graph, algoNames[i]);
-                RootedTree rooted = new RootedTree(tree, 0);
+        for (int i = 0; i < algoNames.length; i++) {
+            ParallelTreeSampler sampler = new ParallelTreeSampler(samplerForAlgo(algoNames[i]), seed);
+            List<TreeStatistics> metrics = sampler.sample(csr, samples,
+                    (parent, parentEdge, root) -> kernels.get().compute(parent, root, n));
 
-                sumDiameter += rooted.getDiameter();
-                sumEccentricity += rooted.getAverageEccentricity();
-                sumWiener += rooted.getWienerIndex();
+            double sumDiameter = 0;
+            double sumEccentricity = 0.0;
+            double sumWiener = 0;
+            for (TreeStatistics m : metrics) {
+                sumDiameter += m.getDiameter();
+                sumEccentricity += m.getAverageEccentricity();
+                sumWiener += m.getWienerIndex();
             }
 
-            avgDiameter[i] = (double)sumDiameter / samples;
+            avgDiameter[i] = sumDiameter / samples;
             avgEccentricity[i] = sumEccentricity / samples;
-            avgWiener[i] = (double)sumWiener / samples;
+            avgWiener[i] = sumWiener / samples;
         }
 
         System.out.println("Comparaison des algorithmes sur " + samples + " échantillons chacun :");
@@ -259,26 +282,28 @@ public class Main {
         }
     }
 
-    private static ArrayList<Edge> generateTreeForAlgo(Graph graph, String algoName) {
+    /**
+     * Fabrique d'échantillonneurs à partir d'une graine, pour ParallelTreeSampler.
+     */
+    private static LongFunction<TreeSampler> samplerForAlgo(String algoName) {
         switch (algoName) {
             case "Aldous-Broder":
-                AldousBroderGenerator aldous = new AldousBroderGenerator();
-                return new ArrayList<>(aldous.generateRandomSpanningTree(graph));
+                return AldousBroderGenerator::new;
             case "Wilson":
-                WilsonGenerator wilson = new WilsonGenerator();
-                return new ArrayList<>(wilson.generateRandomSpanningTree(graph));
+                return WilsonGenerator::new;
             case "Random MST":
-                RandomMSTGenerator mstGen = new RandomMSTGenerator(
-                        new KruskalMSTAlgorithm(),
-                        new RandomWeightAssigner()
-                );
-                return mstGen.generateRandomMST(graph);
+                // poids aléatoires + Kruskal filtré comme genRandomMSTTree, sans écrire de poids dans le graphe partagé
+                return seed -> new RandomMSTGenerator(new FilterKruskalMSTAlgorithm(), new RandomWeightAssigner(seed));
             case "Random Traversal":
-                RandomTraversalGenerator traversal = new RandomTraversalGenerator();
-                return new ArrayList<>(traversal.generateRandomSpanningTree(graph));
+                return RandomTraversalGenerator::new;
+            case "Random Insertion":
+                return RandomInsertionGenerator::new;
+            case "Contraction":
+                return RandomContractionGenerator::new;
+            case "Flipper":
+                return seed -> new FlipSampler(100_000, seed);
             default:
-                AldousBroderGenerator def = new AldousBroderGenerator();
-                return new ArrayList<>(def.generateRandomSpanningTree(graph));
+                return AldousBroderGenerator::new;
         }
     }
 
@@ -1,26 +1,35 @@
 package RandomTreeAlgos;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * This class implements the Aldous-Broder algorithm.
  * It performs a random walk on the graph until all vertices have been visited.
  * Each time a new vertex is visited, the edge leading to it is added to the spanning tree.
+ * The walk stops as soon as the last vertex is covered.
  */
-public class AldousBroderGenerator {
-    private final Random rng;
+public class AldousBroderGenerator implements TreeSampler {
+    // number of random ints drawn at once
+    private static final int BLOCK = 1024;
+
+    private final SplittableRandom rng;
+    private final int[] randomBlock = new int[BLOCK];
+    private int randomIndex = BLOCK;
+    private boolean[] visited = new boolean[0];
 
     public AldousBroderGenerator() {
-        this.rng = new Random();
+        this.rng = new SplittableRandom();
     }
 
     public AldousBroderGenerator(long seed) {
-        this.rng = new Random(seed);
+        this.rng = new SplittableRandom(seed);
     }
 
     /**
@@ -29,46 +38,126 @@ public class AldousBroderGenerator {
      * @return A list of edges forming a random spanning tree.
      */
     public List<Edge> generateRandomSpanningTree(Graph graph) {
-        int n = graph.order;
-        boolean[] visited = new boolean[graph.upperBound];
-        int visitedCount = 0;
-
-        // Collect all active vertices
-        ArrayList<Integer> activeVertices = new ArrayList<>();
-        for (int v = 0; v < graph.upperBound; v++) {
-            if (graph.isVertex(v)) {
-                activeVertices.add(v);
-            }
-        }
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        return csr.toEdgeList(generateSpanningTreeEdgeIds(csr));
+    }
 
-        // Choose a random initial vertex
-        int start = activeVertices.get(rng.nextInt(activeVertices.size()));
-        visited[start] = true;
-        visitedCount = 1;
+    /**
+     * Generates a uniformly random spanning tree using the Aldous-Broder algorithm.
+     * @param graph The input graph (assumed connected).
+     * @return The ids of the edges forming a random spanning tree.
+     */
+    public int[] generateSpanningTreeEdgeIds(IAdjacency graph) {
+        int[] parent = new int[graph.upperBound()];
+        int[] parentEdge = new int[graph.upperBound()];
+        sampleTree(graph, parent, parentEdge);
+        return TreeSampler.treeEdgeIds(parentEdge, graph.upperBound());
+    }
+
+    /**
+     * Samples a uniformly random spanning tree using the Aldous-Broder algorithm,
+     * rooted at the start of the walk: the parent of a vertex is the vertex
+     * from which the walk first entered it.
+     * @param graph The input graph (assumed connected).
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        int upperBound = graph.upperBound();
+        if (visited.length < upperBound) visited = new boolean[upperBound];
+        else Arrays.fill(visited, 0, upperBound, false);
+        Arrays.fill(parent, 0, upperBound, -1);
+        Arrays.fill(parentEdge, 0, upperBound, -1);
 
-        List<Edge> spanningTree = new ArrayList<>();
+        int start = randomVertex(graph);
+        if (graph instanceof CsrGraph) walk((CsrGraph) graph, start, parent, parentEdge);
+        else walk(graph, start, parent, parentEdge);
+        return start;
+    }
+
+    private void walk(IAdjacency graph, int start, int[] parent, int[] parentEdge) {
+        int n = graph.order();
+        visited[start] = true;
+        int visitedCount = 1;
         int current = start;
 
         // Perform random walk until all vertices are visited
         while (visitedCount < n) {
-            // Get all edges from 'current'
-            List<Edge> edgesFromCurrent = graph.getIncidency().get(current);
-
             // Pick a random edge (current, next)
-            Edge chosen = edgesFromCurrent.get(rng.nextInt(edgesFromCurrent.size()));
-            int next = (chosen.getSource() == current) ? chosen.getDest() : chosen.getSource();
+            int k = nextInt(graph.degree(current));
+            int next = graph.neighbor(current, k);
 
             // If 'next' is unvisited, mark it visited and add edge to spanning tree
             if (!visited[next]) {
                 visited[next] = true;
+                parent[next] = current;
+                parentEdge[next] = graph.incidentEdge(current, k);
                 visitedCount++;
-                spanningTree.add(chosen);
             }
 
             // Move to the next vertex
             current = next;
         }
+    }
+
+    /**
+     * Same walk, reading the CSR arrays directly.
+     */
+    private void walk(CsrGraph graph, int start, int[] parent, int[] parentEdge) {
+        int[] offsets = graph.offsets;
+        int[] neighbors = graph.neighbors;
+        int[] edgeIds = graph.edgeIds;
+
+        int n = graph.order();
+        visited[start] = true;
+        int visitedCount = 1;
+        int current = start;
+
+        while (visitedCount < n) {
+            // nextInt rejects the degree 0 of an isolated vertex, whose slot would belong to the next vertex
+            int slot = offsets[current] + nextInt(offsets[current + 1] - offsets[current]);
+            int next = neighbors[slot];
+            if (!visited[next]) {
+                visited[next] = true;
+                parent[next] = current;
+                parentEdge[next] = edgeIds[slot];
+                visitedCount++;
+            }
+            current = next;
+        }
+    }
+
+    private int randomVertex(IAdjacency graph) {
+        int rank = nextInt(graph.order());
+        for (int v = 0; v < graph.upperBound(); v++) {
+            if (graph.isVertex(v) && rank-- == 0) return v;
+        }
+        throw new IllegalStateException("Graph has fewer active vertices than its order");
+    }
 
-        return spanningTree;
+    /**
+     * @return a uniform integer in [0, bound), by multiplying 32 random bits by bound
+     * and rejecting the few products that would bias the result (Lemire's method).
+     */
+    private int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        long product = (nextBits() & 0xFFFFFFFFL) * bound;
+        if ((product & 0xFFFFFFFFL) < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while ((product & 0xFFFFFFFFL) < threshold)
+                product = (nextBits() & 0xFFFFFFFFL) * bound;
+        }
+        return (int) (product >>> 32);
+    }
+
+    private int nextBits() {
+        if (randomIndex == BLOCK) {
+            for (int i = 0; i < BLOCK; i += 2) {
+                long bits = rng.nextLong();
+                randomBlock[i] = (int) bits;
+                randomBlock[i + 1] = (int) (bits >>> 32);
+            }
+            randomIndex = 0;
+        }
+        return randomBlock[randomIndex++];
     }
 }
@@ -1,48 +1,59 @@
 package RandomTreeAlgos;
 
 import Graph.Arc;
+import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 
 import java.util.*;
 
 
 public class BreadthFirstSearch {
 
-	Graph graph;
-	Queue<Arc> frontier;
-	ArrayList<Arc> tree;
-	BitSet reached;
-	
-	private void push(int vertex) {
-		for (Arc arc : graph.outEdges(vertex)) frontier.offer(arc);
-	}
-	
-	private void explore(Arc nextArc) {
-		if (reached.get(nextArc.getDest())) return;
-		reached.set(nextArc.getDest());
-		tree.add(nextArc);
-		push(nextArc.getDest());
+	/**
+	 * Breadth-first search tree of a Graph.
+	 * The search itself runs on vertex and edge ids: only the tree arcs are allocated.
+	 * @return the arcs of the tree, in bfs order
+	 */
+	public static ArrayList<Arc> generateTree(Graph graph, int root) {
+		int[] parent = new int[graph.upperBound];
+		int[] parentEdge = new int[graph.upperBound];
+		int[] bfsOrder = generateTree(graph, root, parent, parentEdge);
+		ArrayList<Arc> tree = new ArrayList<>(bfsOrder.length);
+		for (int i = 1; i < bfsOrder.length; i++) {
+			int vertex = bfsOrder[i];
+			Edge support = graph.getEdge(parentEdge[vertex]);
+			tree.add(new Arc(support, support.getSource() != parent[vertex]));
+		}
+		return tree;
 	}
 
-	private void bfs(int startingVertex) {
-		reached.set(startingVertex);
-		push(startingVertex);
-		while (!frontier.isEmpty()) {
-			explore(frontier.poll());
+	/**
+	 * Breadth-first search on an adjacency structure, without Arc objects.
+	 * Fills parent and parentEdge (-1 for the root and unreached vertices).
+	 * @return the reached vertices, in bfs order
+	 */
+	public static int[] generateTree(IAdjacency graph, int root, int[] parent, int[] parentEdge) {
+		int[] queue = new int[graph.order()];
+		Arrays.fill(parent, -1);
+		Arrays.fill(parentEdge, -1);
+		BitSet reached = new BitSet(graph.upperBound());
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+		reached.set(root);
+		while (head < tail) {
+			int current = queue[head++];
+			for (int k = 0; k < graph.degree(current); k++) {
+				int next = graph.neighbor(current, k);
+				if (reached.get(next)) continue;
+				reached.set(next);
+				parent[next] = current;
+				parentEdge[next] = graph.incidentEdge(current, k);
+				queue[tail++] = next;
+			}
 		}
-	}
-	
-	private BreadthFirstSearch (Graph graph) {
-		this.graph = graph;
-		this.frontier = new LinkedList<>();
-		this.tree = new ArrayList<>();
-		this.reached = new BitSet(graph.order);
-	}
-	
-	public static ArrayList<Arc> generateTree(Graph graph, int root) {
-		BreadthFirstSearch algo = new BreadthFirstSearch(graph);
-		algo.bfs(root);
-		return algo.tree;
+		return Arrays.copyOf(queue, tail);
 	}
 
 }
@@ -0,0 +1,42 @@
+package RandomTreeAlgos;
+
+import Graph.IAdjacency;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples spanning trees with the flip chain of Flipper, so that it can be used
+ * wherever a TreeSampler is expected.
+ * The chain starts from a random BFS tree of the graph, and each call performs
+ * flipsPerSample more flips before writing the current tree. Each flip moves the
+ * root one step of a random walk, so the trees converge to the uniform distribution
+ * on connected graphs. Consecutive samples come from the same chain: they are only
+ * close to independent when flipsPerSample is large compared to the cover time
+ * of the graph, which bounds the mixing time.
+ */
+public class FlipSampler implements TreeSampler {
+    private final int flipsPerSample;
+    private final SplittableRandom seeds;
+    private IAdjacency graph;
+    private Flipper flipper;
+
+    public FlipSampler(int flipsPerSample, long seed) {
+        if (flipsPerSample < 0)
+            throw new IllegalArgumentException("Negative number of flips: " + flipsPerSample);
+        this.flipsPerSample = flipsPerSample;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        if (graph != this.graph) {
+            // a new chain, from a BFS tree
+            RandomTraversalGenerator bfs = new RandomTraversalGenerator(FrontierPolicy.QUEUE, seeds.nextLong());
+            int root = bfs.sampleTree(graph, parent, parentEdge);
+            flipper = new Flipper(graph, TreeSampler.treeEdgeIds(parentEdge, graph.upperBound()), root, seeds.nextLong());
+            this.graph = graph;
+        }
+        flipper.performFlips(flipsPerSample);
+        return flipper.copyTree(parent, parentEdge);
+    }
+}
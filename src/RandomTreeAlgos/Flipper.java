@@ -1,9 +1,15 @@
 package RandomTreeAlgos;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
 
 /**
  * This class implements the flipping algorithm described in section 3.7.
@@ -12,19 +18,42 @@ import java.util.*;
  */
 public class Flipper {
     private final Random rng;
-    private Graph graph;
+    private IAdjacency graph;
+    private CsrGraph csr; // set when built from a Graph, to map ids back to its edges
 
-    // The spanning tree T is stored as a set of edges plus a parent array for orientation.
-    private Set<Edge> treeEdges;
+    // The spanning tree T is stored as a set of edge ids plus a parent array for orientation.
+    private BitSet treeEdges;
     private int[] parent; // parent[u] = parent of u in the oriented tree towards root
+    private int[] parentEdge; // parentEdge[u] = id of the tree edge (u,parent[u])
     private int root;     // current root of the tree
 
     public Flipper(Graph graph, Set<Edge> initialTree, int root) {
+        this(CsrGraph.fromGraph(graph), initialTree, root);
+    }
+
+    private Flipper(CsrGraph graph, Set<Edge> initialTree, int root) {
+        this(graph, graph.toEdgeIds(initialTree), root);
+    }
+
+    /**
+     * @param initialTree the ids of the edges of the initial spanning tree
+     */
+    public Flipper(IAdjacency graph, int[] initialTree, int root) {
+        this(graph, initialTree, root, new Random());
+    }
+
+    public Flipper(IAdjacency graph, int[] initialTree, int root, long seed) {
+        this(graph, initialTree, root, new Random(seed));
+    }
+
+    private Flipper(IAdjacency graph, int[] initialTree, int root, Random rng) {
         this.graph = graph;
-        this.treeEdges = new HashSet<>(initialTree);
-        this.rng = new Random();
+        this.csr = (graph instanceof CsrGraph ? (CsrGraph) graph : null);
+        this.treeEdges = new BitSet(graph.edgeCardinality());
+        this.rng = rng;
         this.root = root;
-        // Initially, orient edges towards root
+        for (int e : initialTree) treeEdges.set(e);
+        // Initially, orient edges towards root; flips then keep the orientation up to date
         reorientTree(root);
     }
 
@@ -39,127 +68,121 @@ public class Flipper {
     }
 
     /**
-     * Perform a single flip operation:
-     * 1. Pick a non-tree edge (r,u) incident to root r.
+     * Perform a single flip operation, one step of the root along a random walk:
+     * 1. Pick an edge (r,u) incident to root r, uniformly.
      * 2. Add (r,u) to T, forming a cycle.
      * 3. Remove the unique T-edge from u (u,parent[u]).
      * 4. Set u as new root.
      * 5. Reorient edges towards u.
+     * When (r,u) is already a tree edge, u is a child of r: steps 2 and 3 cancel
+     * and the flip only moves the root to u. Otherwise a BFS tree, whose root has
+     * no non-tree edge, would never change.
+     * This is the last-exit tree of the walk (Aldous, Broder): the stationary
+     * distribution of (T,r) is proportional to deg(r), so T alone is uniform.
+     * Removing (u,parent[u]) leaves the subtree of u oriented towards u, and
+     * the rest of the tree oriented towards r: reorienting only takes making
+     * u the parent of r. A flip therefore costs O(1).
      */
     private void doOneFlip() {
-        // Step 1: Find a non-tree edge incident to the current root
-        Edge chosenEdge = chooseNonTreeEdgeIncidentToRoot();
-        if (chosenEdge == null) {
-            // If no non-tree edge is found, we could try another strategy or skip
-            return;
-        }
-
-        int u = (chosenEdge.getSource() == root) ? chosenEdge.getDest() : chosenEdge.getSource();
+        // Step 1: a random edge incident to the current root
+        int degree = graph.degree(root);
+        if (degree == 0) return;
+        int k = rng.nextInt(degree);
+        int chosenEdge = graph.incidentEdge(root, k);
+        int u = graph.neighbor(root, k);
 
         // Now adding (root,u) forms a cycle in T ∪ {chosenEdge}
         // Step 3: The unique T-edge from u is (u,parent[u]) because all edges are oriented towards root
-        int p = parent[u];
-        Edge edgeToRemove = findEdgeInTree(u, p);
-        if (edgeToRemove == null) {
-            // Should not happen if parent array is correct
-            return;
-        }
+        int edgeToRemove = parentEdge[u];
 
-        // Modify T: Add chosenEdge and remove edgeToRemove
-        treeEdges.remove(edgeToRemove);
-        treeEdges.add(chosenEdge);
+        // Modify T: Add chosenEdge and remove edgeToRemove (the same edge if u is a child of root)
+        treeEdges.clear(edgeToRemove);
+        treeEdges.set(chosenEdge);
 
-        // Step 4: New root is u
+        // Steps 4 and 5: u becomes the root, and the parent of the old root
+        parent[root] = u;
+        parentEdge[root] = chosenEdge;
+        parent[u] = -1;
+        parentEdge[u] = -1;
         root = u;
-
-        // Step 5: Reorient edges towards new root
-        reorientTree(root);
     }
 
     /**
-     * Choose a non-tree edge incident to the current root.
-     * Non-tree edge means an edge e not in treeEdges.
-     * Incident to root means one endpoint is root.
+     * Orient the edges so that they all point towards the new root.
+     * We know treeEdges form a spanning tree. We'll do a BFS from root,
+     * over the tree edges grouped by vertex (as in a CSR graph),
+     * assigning parents so that each edge in the tree is directed towards root.
      */
-    private Edge chooseNonTreeEdgeIncidentToRoot() {
-        List<Edge> candidates = new ArrayList<>();
-        for (Edge e : graph.getIncidency().get(root)) {
-            // Check if e is in T
-            if (!treeEdges.contains(e)) {
-                candidates.add(e);
-            }
+    private void reorientTree(int newRoot) {
+        int n = graph.upperBound();
+        parent = new int[n];
+        parentEdge = new int[n];
+        Arrays.fill(parent, -1);
+        Arrays.fill(parentEdge, -1);
+
+        // Group the tree edges by endpoint
+        int[] offsets = new int[n + 1];
+        for (int e = treeEdges.nextSetBit(0); e >= 0; e = treeEdges.nextSetBit(e + 1)) {
+            offsets[graph.edgeSource(e) + 1]++;
+            offsets[graph.edgeDest(e) + 1]++;
         }
-        if (candidates.isEmpty()) {
-            return null;
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] incident = new int[offsets[n]];
+        for (int e = treeEdges.nextSetBit(0); e >= 0; e = treeEdges.nextSetBit(e + 1)) {
+            incident[next[graph.edgeSource(e)]++] = e;
+            incident[next[graph.edgeDest(e)]++] = e;
         }
-        return candidates.get(rng.nextInt(candidates.size()));
-    }
 
-    /**
-     * Reorient the edges so that they all point towards the new root.
-     * We know treeEdges form a spanning tree. We'll do a BFS/DFS from root.
-     * For BFS: start at root, parent[root]=-1, and assign parents so that
-     * each edge in the tree is directed towards root.
-     */
-    private void reorientTree(int newRoot) {
-        parent = new int[graph.upperBound];
-        Arrays.fill(parent, -1);
-        // Build adjacency for T from treeEdges (undirected)
-        List<List<Integer>> adj = buildTreeAdjList();
-        // BFS to assign parents
-        Queue<Integer> queue = new LinkedList<>();
-        queue.offer(newRoot);
-        parent[newRoot] = -1; // root has no parent
-        while (!queue.isEmpty()) {
-            int current = queue.poll();
-            for (int neigh : adj.get(current)) {
-                if (neigh != newRoot && parent[neigh] == -1 && neigh != current) {
+        // BFS to assign parents, the array queue holding each vertex once
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = newRoot;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int e = incident[i];
+                int neigh = (graph.edgeSource(e) == current) ? graph.edgeDest(e) : graph.edgeSource(e);
+                if (neigh != newRoot && parent[neigh] == -1) {
                     // Assign parent to direct edge towards root
                     parent[neigh] = current;
-                    queue.offer(neigh);
+                    parentEdge[neigh] = e;
+                    queue[tail++] = neigh;
                 }
             }
         }
     }
 
     /**
-     * Build adjacency list for the current tree (as undirected)
-     * from the set treeEdges.
+     * Returns the edges of the current tree: the Edge objects of the graph when
+     * the flipper was built from a Graph or a CsrGraph, new Edge objects otherwise.
      */
-    private List<List<Integer>> buildTreeAdjList() {
-        List<List<Integer>> adj = new ArrayList<>(graph.upperBound);
-        for (int i = 0; i < graph.upperBound; i++) {
-            adj.add(new ArrayList<>());
-        }
-        for (Edge e : treeEdges) {
-            int u = e.getSource();
-            int v = e.getDest();
-            if (graph.isVertex(u) && graph.isVertex(v)) {
-                adj.get(u).add(v);
-                adj.get(v).add(u);
-            }
-        }
-        return adj;
+    public Set<Edge> getTreeEdges() {
+        int[] ids = getTreeEdgeIds();
+        if (csr != null) return new HashSet<>(csr.toEdgeList(ids));
+        Set<Edge> edges = new HashSet<>();
+        for (int e : ids)
+            edges.add(new Edge(graph.edgeSource(e), graph.edgeDest(e), graph.edgeWeight(e)));
+        return edges;
     }
 
     /**
-     * Find the edge (u,parentU) or (parentU,u) in the treeEdges.
+     * Returns the ids of the edges of the current tree.
      */
-    private Edge findEdgeInTree(int u, int parentU) {
-        for (Edge e : treeEdges) {
-            if ((e.getSource() == u && e.getDest() == parentU) ||
-                    (e.getSource() == parentU && e.getDest() == u)) {
-                return e;
-            }
-        }
-        return null;
+    public int[] getTreeEdgeIds() {
+        return treeEdges.stream().toArray();
     }
 
     /**
-     * Returns the edges of the current tree.
+     * Copies the orientation of the current tree towards its root, in the format
+     * of TreeSampler: -1 for the root and for inactive vertices.
+     * @return the current root
      */
-    public Set<Edge> getTreeEdges() {
-        return new HashSet<>(treeEdges);
+    public int copyTree(int[] parent, int[] parentEdge) {
+        System.arraycopy(this.parent, 0, parent, 0, this.parent.length);
+        System.arraycopy(this.parentEdge, 0, parentEdge, 0, this.parentEdge.length);
+        return root;
     }
 
     /**
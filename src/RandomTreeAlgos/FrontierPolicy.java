@@ -0,0 +1,17 @@
+package RandomTreeAlgos;
+
+/**
+ * Order in which RandomTraversalGenerator takes edges out of its frontier.
+ * Each policy gives mazes a different texture; within a policy, trees are random:
+ * STACK and QUEUE push the edges of each reached vertex in random order.
+ */
+public enum FrontierPolicy {
+    /** a uniformly random frontier edge */
+    RANDOM,
+    /** the most recently added edge, as in a depth-first search: long corridors */
+    STACK,
+    /** the oldest edge, as in a breadth-first search: paths radiating from the start */
+    QUEUE,
+    /** the edge of least weight, ties broken at random, as in Prim's algorithm */
+    WEIGHTED
+}
@@ -0,0 +1,102 @@
+package RandomTreeAlgos;
+
+import Graph.CsrGraph;
+import Graph.Graph;
+import Graph.IAdjacency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Draws many independent spanning trees of one graph on all cores.
+ * Samples are cut into chunks of CHUNK consecutive samples, and each chunk gets
+ * a sampler of its own, built by the factory from a seed drawn for that chunk.
+ * Chunks do not depend on the number of threads, so for a given seed the samples
+ * are the same whatever the parallelism; results are returned in sample order.
+ *
+ * The graph is only read, and shared by all samplers.
+ * Example: new ParallelTreeSampler(WilsonGenerator::new, 42).sampleTreeEdgeIds(graph, 1000)
+ */
+public class ParallelTreeSampler {
+    // number of consecutive samples drawn by one sampler
+    private static final int CHUNK = 16;
+
+    /**
+     * Analysis of a tree, run on the worker that sampled it.
+     * The arrays are reused for the next sample of the worker, so they must not be kept.
+     */
+    public interface TreeFunction<R> {
+        R apply(int[] parent, int[] parentEdge, int root);
+    }
+
+    private final LongFunction<? extends TreeSampler> factory;
+    private final SplittableRandom rng;
+
+    /**
+     * @param factory builds a sampler from a seed, e.g. WilsonGenerator::new
+     */
+    public ParallelTreeSampler(LongFunction<? extends TreeSampler> factory) {
+        this.factory = factory;
+        this.rng = new SplittableRandom();
+    }
+
+    public ParallelTreeSampler(LongFunction<? extends TreeSampler> factory, long seed) {
+        this.factory = factory;
+        this.rng = new SplittableRandom(seed);
+    }
+
+    /**
+     * Samples count trees and applies the function to each of them, in parallel.
+     * @return the results, in sample order
+     */
+    public <R> List<R> sample(IAdjacency graph, int count, TreeFunction<R> function) {
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        long[] seeds = nextSeeds(chunks);
+        int n = graph.upperBound();
+        List<R> results = new ArrayList<>(Collections.nCopies(count, null));
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            TreeSampler sampler = factory.apply(seeds[c]);
+            int[] parent = new int[n];
+            int[] parentEdge = new int[n];
+            int end = Math.min(count, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) {
+                int root = sampler.sampleTree(graph, parent, parentEdge);
+                results.set(i, function.apply(parent, parentEdge, root));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Samples count trees in parallel.
+     * @return the ids of the edges of each tree, in sample order
+     */
+    public int[][] sampleTreeEdgeIds(IAdjacency graph, int count) {
+        int n = graph.upperBound();
+        return sample(graph, count, (parent, parentEdge, root) -> TreeSampler.treeEdgeIds(parentEdge, n))
+                .toArray(new int[0][]);
+    }
+
+    /**
+     * Samples count trees of a Graph in parallel, through one CSR copy shared by all samplers.
+     * Edge ids are those of graph.getEdge.
+     */
+    public int[][] sampleTreeEdgeIds(Graph graph, int count) {
+        return sampleTreeEdgeIds(CsrGraph.fromGraph(graph), count);
+    }
+
+    /**
+     * Seeds of the chunks of one call, drawn from a stream split for this call.
+     */
+    private synchronized long[] nextSeeds(int chunks) {
+        SplittableRandom stream = rng.split();
+        long[] seeds = new long[chunks];
+        for (int c = 0; c < chunks; c++) seeds[c] = stream.nextLong();
+        return seeds;
+    }
+}
@@ -1,17 +1,32 @@
 package RandomTreeAlgos;
 
+import Graph.CsrGraph;
 import Graph.Edge;
+import Graph.EdgeIndex;
 import Graph.Graph;
+import Graph.IAdjacency;
+import Utilities.IntArrayList;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Random;
-import java.util.Set;
 
-public class RandomContractionGenerator {
+public class RandomContractionGenerator implements TreeSampler {
     private final Random rng;
 
+    // scratch state, kept between calls
+    private int[] unionFind = new int[0]; // union-find over the super-vertices
+    private IntArrayList[] adjacency = new IntArrayList[0];
+    // representative[e]: whether e is the representative edge of its pair of super-vertices
+    private boolean[] representative = new boolean[0];
+    // multiplicity[e]: for a representative, the number of edges joining its pair
+    private int[] multiplicity = new int[0];
+    private int[] pool = new int[0];
+    private final EdgeIndex index = new EdgeIndex(0);
+    private int[] treeEdges = new int[0];
+    private int treeSize;
+    private final TreeOrienter orienter = new TreeOrienter();
+
     public RandomContractionGenerator() {
         this.rng = new Random();
     }
@@ -24,90 +39,156 @@ public class RandomContractionGenerator {
      * Generates a random spanning tree using edge contraction.
      */
     public ArrayList<Edge> generateRandomSpanningTree(Graph originalGraph) {
-        // Create a working copy of the graph
-        Graph graph = originalGraph.copy();
-        ArrayList<Edge> treeEdges = new ArrayList<>();
-
-        // Map to keep track of merged vertices
-        HashMap<Integer, Integer> vertexMapping = new HashMap<>();
-        for (int i = 0; i < graph.upperBound; i++) {
-            if (graph.isVertex(i)) {
-                vertexMapping.put(i, i);
-            }
-        }
+        CsrGraph csr = CsrGraph.fromGraph(originalGraph);
+        return csr.toEdgeList(generateSpanningTreeEdgeIds(csr));
+    }
+
+    /**
+     * Generates a random spanning tree using edge contraction:
+     * while several super-vertices remain, picks a uniformly random pair of
+     * adjacent super-vertices, adds a uniformly random edge joining them to the tree,
+     * and merges them.
+     *
+     * The graph is not copied. Super-vertices are the classes of a union-find,
+     * and every adjacent pair of super-vertices has one representative edge, found
+     * through an EdgeIndex keyed by the pair of roots. When two super-vertices merge,
+     * the adjacency of the smaller one is moved to the larger one; edges that become
+     * self-loops stop being representatives, and of two edges that become parallel,
+     * one is kept with probability proportional to the number of original edges
+     * it stands for. Representatives are drawn
+     * from a pool of edges in random order, the others being dropped as they are drawn.
+     * Runs in O(m log n) expected time.
+     * @return the ids of the edges of the original graph forming the tree
+     */
+    public int[] generateSpanningTreeEdgeIds(IAdjacency graph) {
+        contract(graph);
+        return Arrays.copyOf(treeEdges, treeSize);
+    }
 
-        while (graph.getActiveVertexCount() > 1) {
-            // Get all valid edges for contraction
-            ArrayList<Edge> candidates = new ArrayList<>();
-            for (int v = 0; v < graph.upperBound; v++) {
-                if (graph.isVertex(v)) {
-                    for (Edge e : graph.getIncidency().get(v)) {
-                        if (e.getSource() == v && e.getSource() != e.getDest()) {
-                            candidates.add(e);
-                        }
-                    }
-                }
+    /**
+     * Samples a random spanning tree by edge contraction, rooted at its smallest vertex.
+     * Adjacency lists keep their capacity between calls, so that allocation dies out
+     * once they have grown to the sizes reached by the merges.
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        contract(graph);
+        int root = TreeSampler.smallestVertex(graph);
+        orienter.orient(graph, treeEdges, treeSize, root, parent, parentEdge);
+        return root;
+    }
+
+    /**
+     * Contracts random edges until one super-vertex is left, putting them in treeEdges.
+     */
+    private void contract(IAdjacency graph) {
+        int n = graph.upperBound();
+        int m = graph.edgeCardinality();
+        if (unionFind.length < n) {
+            unionFind = new int[n];
+            adjacency = Arrays.copyOf(adjacency, n);
+        }
+        for (int v = 0; v < n; v++) {
+            unionFind[v] = v;
+            if (!graph.isVertex(v)) continue;
+            if (adjacency[v] == null) adjacency[v] = new IntArrayList(graph.degree(v));
+            else adjacency[v].clear();
+        }
+        if (representative.length < m) {
+            representative = new boolean[m];
+            multiplicity = new int[m];
+            pool = new int[m];
+        } else {
+            Arrays.fill(representative, 0, m, false);
+        }
+        index.clear();
+
+        int poolSize = 0;
+        for (int e = 0; e < m; e++) {
+            int u = graph.edgeSource(e);
+            int v = graph.edgeDest(e);
+            if (u == v) continue;
+            int existing = index.get(u, v);
+            if (existing >= 0) {
+                multiplicity[existing]++;
+                continue;
             }
+            index.put(u, v, e);
+            representative[e] = true;
+            multiplicity[e] = 1;
+            adjacency[u].add(e);
+            adjacency[v].add(e);
+            pool[poolSize++] = e;
+        }
 
-            if (candidates.isEmpty()) {
+        if (treeEdges.length < graph.order()) treeEdges = new int[graph.order()];
+        treeSize = 0;
+        while (treeSize < graph.order() - 1) {
+            if (poolSize == 0) {
                 throw new IllegalStateException("No valid edges found in connected graph with multiple vertices");
             }
-
-            // Choose a random edge
-            Edge chosen = candidates.get(rng.nextInt(candidates.size()));
-
-            // Map vertices through all merges to get original vertices
-            int originalSource = getOriginalVertex(chosen.getSource(), vertexMapping);
-            int originalDest = getOriginalVertex(chosen.getDest(), vertexMapping);
-
-            // Add edge between original vertices to tree
-            treeEdges.add(new Edge(originalSource, originalDest, chosen.weight));
-
-            // Contract the edge
-            contractEdge(graph, chosen, vertexMapping);
+            // Choose a random edge, dropping those that are no longer representatives
+            int i = rng.nextInt(poolSize);
+            int chosen = pool[i];
+            pool[i] = pool[--poolSize];
+            if (!representative[chosen]) continue;
+
+            treeEdges[treeSize++] = chosen;
+            contractEdge(graph, chosen);
         }
-
-        return treeEdges;
     }
 
-    private int getOriginalVertex(int current, HashMap<Integer, Integer> vertexMapping) {
-        int original = current;
-        while (vertexMapping.get(original) != original) {
-            original = vertexMapping.get(original);
+    private void contractEdge(IAdjacency graph, int e) {
+        int a = find(unionFind, graph.edgeSource(e));
+        int b = find(unionFind, graph.edgeDest(e));
+        // merge the smaller adjacency into the larger one
+        if (adjacency[a].size() < adjacency[b].size()) {
+            int tmp = a;
+            a = b;
+            b = tmp;
         }
-        // Path compression - update all intermediate mappings
-        if (current != original) {
-            vertexMapping.put(current, original);
+        representative[e] = false;
+        index.remove(a, b);
+        unionFind[b] = a;
+
+        IntArrayList moved = adjacency[b];
+        for (int i = 0; i < moved.size(); i++) {
+            int edge = moved.get(i);
+            if (!representative[edge]) continue;
+            int c = find(unionFind, graph.edgeSource(edge));
+            if (c == a) c = find(unionFind, graph.edgeDest(edge));
+            index.remove(b, c);
+            if (c == a) {
+                representative[edge] = false;
+                continue;
+            }
+            int other = index.get(a, c);
+            if (other < 0) {
+                index.put(a, c, edge);
+                adjacency[a].add(edge);
+                continue;
+            }
+            // a and c are now joined by two representatives: keep one of them,
+            // so that each original edge between a and c is equally likely to be kept
+            int total = multiplicity[edge] + multiplicity[other];
+            if (rng.nextInt(total) < multiplicity[edge]) {
+                representative[other] = false;
+                index.put(a, c, edge);
+                adjacency[a].add(edge);
+                multiplicity[edge] = total;
+            } else {
+                representative[edge] = false;
+                multiplicity[other] = total;
+            }
         }
-        return original;
+        moved.clear();
     }
 
-    private void contractEdge(Graph graph, Edge e, HashMap<Integer, Integer> vertexMapping) {
-        int u = e.getSource();
-        int v = e.getDest();
-
-        // Update vertex mapping
-        vertexMapping.put(v, u);
-
-        // Get all edges incident to v
-        Set<Edge> edgesToProcess = new HashSet<>(graph.getIncidency().get(v));
-
-        // Process each edge
-        for (Edge edge : edgesToProcess) {
-            if (edge != e) {  // Skip the contracted edge
-                int otherEnd = edge.oppositeExtremity(v);
-                if (otherEnd != u) {  // Skip if it would create a self-loop
-                    // Remove the old edge
-                    graph.removeEdge(edge);
-                    // Add new edge connecting u to otherEnd
-                    Edge newEdge = new Edge(u, otherEnd, edge.weight);
-                    graph.addEdgeIfNotDuplicate(newEdge);
-                }
-            }
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
         }
-
-        // Remove the contracted edge and vertex
-        graph.removeEdge(e);
-        graph.deleteVertex(v);
+        return x;
     }
-}
\ No newline at end of file
+}
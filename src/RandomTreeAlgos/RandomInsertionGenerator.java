@@ -1,9 +1,11 @@
 package RandomTreeAlgos;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -13,52 +15,132 @@ import java.util.Random;
  * 2. Pick a random edge e from E(G).
  * 3. If adding e does not create a cycle (checked via Union-Find), add it to F.
  * 4. Repeat until |F| = |V| - 1.
+ * By default edges are drawn with replacement. Without replacement, edges are
+ * drawn from a lazily shuffled array of edge ids (partial Fisher-Yates): the tree
+ * has the same distribution, no edge is drawn twice, and the generator stops when
+ * the edges run out, returning a spanning forest if the graph is disconnected.
  */
-public class RandomInsertionGenerator {
+public class RandomInsertionGenerator implements TreeSampler {
     private final Random rng;
+    private final boolean withoutReplacement;
+    private long rejectedDraws;
+
+    // scratch state, kept between calls
+    private final UnionFind uf = new UnionFind(0);
+    private final TreeOrienter orienter = new TreeOrienter();
+    private int[] spanningTree = new int[0];
+    private int[] edges = new int[0];
+    private int edgeCount = -1; // edges[0 .. edgeCount-1] is a permutation of the edge ids
 
     public RandomInsertionGenerator() {
-        this.rng = new Random();
+        this(false);
     }
 
     public RandomInsertionGenerator(long seed) {
+        this(false, seed);
+    }
+
+    public RandomInsertionGenerator(boolean withoutReplacement) {
+        this.rng = new Random();
+        this.withoutReplacement = withoutReplacement;
+    }
+
+    public RandomInsertionGenerator(boolean withoutReplacement, long seed) {
         this.rng = new Random(seed);
+        this.withoutReplacement = withoutReplacement;
+    }
+
+    /**
+     * @return the number of edges drawn and rejected because they closed a cycle,
+     * during the last generation
+     */
+    public long getRejectedDraws() {
+        return rejectedDraws;
     }
 
     public List<Edge> generateRandomSpanningTree(Graph graph) {
-        int n = graph.order;
-        // Collect all edges (undirected) once
-        ArrayList<Edge> allEdges = new ArrayList<>();
-        for (int v = 0; v < graph.upperBound; v++) {
-            if (graph.isVertex(v)) {
-                for (Edge e : graph.getIncidency().get(v)) {
-                    // To avoid duplicates, only add if v is the source
-                    if (e.getSource() == v) {
-                        allEdges.add(e);
-                    }
-                }
-            }
-        }
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        return csr.toEdgeList(generateSpanningTreeEdgeIds(csr));
+    }
 
-        UnionFind uf = new UnionFind(graph.upperBound);
-        ArrayList<Edge> spanningTree = new ArrayList<>();
+    public int[] generateSpanningTreeEdgeIds(IAdjacency graph) {
+        int size = insertEdges(graph);
+        return Arrays.copyOf(spanningTree, size);
+    }
+
+    /**
+     * Samples a random spanning tree (a spanning forest when drawing without replacement
+     * from a disconnected graph), rooted at its smallest vertex.
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        int size = insertEdges(graph);
+        int root = TreeSampler.smallestVertex(graph);
+        orienter.orient(graph, spanningTree, size, root, parent, parentEdge);
+        return root;
+    }
+
+    /**
+     * Puts the edges of a random spanning tree in spanningTree.
+     * @return the number of edges
+     */
+    private int insertEdges(IAdjacency graph) {
+        int n = graph.order();
+        if (spanningTree.length < n) spanningTree = new int[n];
+        uf.reset(graph.upperBound());
+        rejectedDraws = 0;
+        if (withoutReplacement) return insertWithoutReplacement(graph);
+
+        // Edges are addressed by id, 0 .. m-1
+        int m = graph.edgeCardinality();
+        int size = 0;
 
         // Keep going until we have |V| - 1 edges in the spanning tree
-        while (spanningTree.size() < n - 1) {
-            // Pick a random edge from allEdges
-            Edge chosen = allEdges.get(rng.nextInt(allEdges.size()));
-            int u = chosen.getSource();
-            int v = chosen.getDest();
+        while (size < n - 1) {
+            // Pick a random edge
+            int chosen = rng.nextInt(m);
+            int u = graph.edgeSource(chosen);
+            int v = graph.edgeDest(chosen);
 
             // Try to unite their sets
             if (uf.union(u, v)) {
                 // If union succeeded without cycle, add edge to spanning tree
-                spanningTree.add(chosen);
+                spanningTree[size++] = chosen;
+            } else {
+                // If a cycle would have been formed, do nothing and pick another edge
+                rejectedDraws++;
             }
-            // If a cycle would have been formed, do nothing and pick another edge
         }
 
-        return spanningTree;
+        return size;
+    }
+
+    private int insertWithoutReplacement(IAdjacency graph) {
+        int n = graph.order();
+        int m = graph.edgeCardinality();
+        // Any permutation of the ids is a valid start for the shuffle,
+        // in particular the one left by the previous call
+        if (edgeCount != m) {
+            if (edges.length < m) edges = new int[m];
+            for (int e = 0; e < m; e++) edges[e] = e;
+            edgeCount = m;
+        }
+        int size = 0;
+
+        // edges[0 .. i-1] have been drawn, edges[i .. m-1] have not
+        for (int i = 0; i < m && size < n - 1; i++) {
+            int j = i + rng.nextInt(m - i);
+            int chosen = edges[j];
+            edges[j] = edges[i];
+            edges[i] = chosen;
+
+            if (uf.union(graph.edgeSource(chosen), graph.edgeDest(chosen)))
+                spanningTree[size++] = chosen;
+            else
+                rejectedDraws++;
+        }
+
+        return size;
     }
 
     private static class UnionFind {
@@ -68,6 +150,17 @@ public class RandomInsertionGenerator {
         public UnionFind(int size) {
             parent = new int[size];
             rank = new int[size];
+            reset(size);
+        }
+
+        /**
+         * Makes elements 0 .. size-1 singletons again, growing the arrays if needed.
+         */
+        public void reset(int size) {
+            if (parent.length < size) {
+                parent = new int[size];
+                rank = new int[size];
+            }
             for (int i = 0; i < size; i++) {
                 parent[i] = i;
                 rank[i] = 0;
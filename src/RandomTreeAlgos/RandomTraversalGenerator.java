@@ -1,9 +1,12 @@
 package RandomTreeAlgos;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
+import Utilities.IntArrayList;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -11,19 +14,37 @@ import java.util.Random;
  * This class provides a method to generate a random spanning tree using a random traversal:
  * 1. Start from a random vertex.
  * 2. Maintain a "frontier" of edges leading out of visited vertices.
- * 3. Pick a random edge from the frontier.
+ * 3. Pick an edge from the frontier, according to the frontier policy (a random one by default).
  * 4. If it leads to an unvisited vertex, add it to the tree and update the frontier.
  * 5. Repeat until all vertices are visited or no more frontier edges are available.
+ * Edges whose endpoints have both been visited are not removed from the frontier
+ * when they become stale, but skipped when picked. Each edge enters the frontier
+ * at most once, and every frontier operation is O(1) (O(log m) for WEIGHTED),
+ * so the traversal runs in O(m).
  */
-public class RandomTraversalGenerator {
+public class RandomTraversalGenerator implements TreeSampler {
     private final Random rng;
+    private final FrontierPolicy policy;
+    private boolean[] visited = new boolean[0];
+    private Frontier frontier;
+    private final IntArrayList pending = new IntArrayList(); // edges of a vertex, before a shuffle
 
     public RandomTraversalGenerator() {
-        this.rng = new Random();
+        this(FrontierPolicy.RANDOM);
     }
 
     public RandomTraversalGenerator(long seed) {
+        this(FrontierPolicy.RANDOM, seed);
+    }
+
+    public RandomTraversalGenerator(FrontierPolicy policy) {
+        this.rng = new Random();
+        this.policy = policy;
+    }
+
+    public RandomTraversalGenerator(FrontierPolicy policy, long seed) {
         this.rng = new Random(seed);
+        this.policy = policy;
     }
 
     /**
@@ -32,69 +53,276 @@ public class RandomTraversalGenerator {
      * @return A list of edges that form the random spanning tree.
      */
     public List<Edge> generateRandomSpanningTree(Graph graph) {
-        // Choose a random starting vertex
-        int start = chooseRandomStartVertex(graph);
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        return csr.toEdgeList(generateSpanningTreeEdgeIds(csr));
+    }
 
-        boolean[] visited = new boolean[graph.upperBound];
-        for (int i = 0; i < visited.length; i++) {
-            visited[i] = false;
-        }
+    /**
+     * Generates a random spanning tree (or spanning forest if not connected) of the given graph.
+     * @param graph The input graph.
+     * @return The ids of the edges that form the random spanning tree.
+     */
+    public int[] generateSpanningTreeEdgeIds(IAdjacency graph) {
+        int[] parent = new int[graph.upperBound()];
+        int[] parentEdge = new int[graph.upperBound()];
+        sampleTree(graph, parent, parentEdge);
+        return TreeSampler.treeEdgeIds(parentEdge, graph.upperBound());
+    }
 
-        visited[start] = true;
+    /**
+     * Samples a random spanning tree of the component of a random start vertex,
+     * rooted at that vertex: the parent of a vertex is the visited endpoint of the
+     * frontier edge that reached it. Vertices out of that component stay unreached,
+     * with parent -1.
+     * @param graph The input graph.
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        int upperBound = graph.upperBound();
+        if (visited.length < upperBound) visited = new boolean[upperBound];
+        else Arrays.fill(visited, 0, upperBound, false);
+        Arrays.fill(parent, 0, upperBound, -1);
+        Arrays.fill(parentEdge, 0, upperBound, -1);
+        if (frontier == null) frontier = newFrontier();
+        frontier.clear(graph);
 
-        List<Edge> treeEdges = new ArrayList<>();
-        List<Edge> frontier = new ArrayList<>();
+        // Choose a random starting vertex
+        int start = chooseRandomStartVertex(graph);
+        visited[start] = true;
 
         // Add edges from start vertex
-        for (Edge e : graph.getIncidency().get(start)) {
-            // Add any edge that leads to an unvisited vertex (which should be all at this point)
-            int other = e.oppositeExtremity(start);
-            if (!visited[other]) {
-                frontier.add(e);
-            }
-        }
+        addIncidentEdges(graph, start);
 
         // While we have edges in the frontier
         while (!frontier.isEmpty()) {
-            // Pick a random edge from the frontier
-            int index = rng.nextInt(frontier.size());
-            Edge chosen = frontier.remove(index);
+            // Pick an edge from the frontier
+            int chosen = frontier.remove();
 
-            int u = chosen.getSource();
-            int v = chosen.getDest();
+            int u = graph.edgeSource(chosen);
+            int v = graph.edgeDest(chosen);
 
             // Determine which endpoint is not visited yet
             int newVertex = visited[u] ? v : u;
 
             if (!visited[newVertex]) {
                 // This edge leads to a new vertex, so add it to the tree
-                treeEdges.add(chosen);
+                parent[newVertex] = (newVertex == u ? v : u);
+                parentEdge[newVertex] = chosen;
                 visited[newVertex] = true;
 
                 // Add all outgoing edges from this new vertex leading to unvisited vertices
-                for (Edge e : graph.getIncidency().get(newVertex)) {
-                    int w = e.oppositeExtremity(newVertex);
-                    if (!visited[w]) {
-                        frontier.add(e);
-                    }
-                }
+                addIncidentEdges(graph, newVertex);
             }
         }
 
-        return treeEdges;
+        return start;
+    }
+
+    /**
+     * Adds the edges from vertex to unvisited vertices to the frontier.
+     * For STACK and QUEUE, they are added in random order: otherwise the order
+     * of the adjacency would decide the whole traversal, and each start vertex
+     * would always give the same tree.
+     */
+    private void addIncidentEdges(IAdjacency graph, int vertex) {
+        int degree = graph.degree(vertex);
+        if (policy != FrontierPolicy.STACK && policy != FrontierPolicy.QUEUE) {
+            for (int k = 0; k < degree; k++) {
+                if (!visited[graph.neighbor(vertex, k)]) frontier.add(graph.incidentEdge(vertex, k));
+            }
+            return;
+        }
+        pending.clear();
+        for (int k = 0; k < degree; k++) {
+            if (!visited[graph.neighbor(vertex, k)]) pending.add(graph.incidentEdge(vertex, k));
+        }
+        // Fisher-Yates shuffle
+        for (int i = pending.size() - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int edge = pending.get(i);
+            pending.set(i, pending.get(j));
+            pending.set(j, edge);
+        }
+        for (int i = 0; i < pending.size(); i++) frontier.add(pending.get(i));
+    }
+
+    private int chooseRandomStartVertex(IAdjacency graph) {
+        // Pick the rank of an active vertex at random, then find it
+        int rank = rng.nextInt(graph.order());
+        for (int v = 0; v < graph.upperBound(); v++) {
+            if (graph.isVertex(v) && rank-- == 0) return v;
+        }
+        throw new IllegalStateException("Graph has fewer active vertices than its order");
+    }
+
+    private Frontier newFrontier() {
+        switch (policy) {
+            case STACK: return new StackFrontier();
+            case QUEUE: return new QueueFrontier();
+            case WEIGHTED: return new WeightedFrontier(rng);
+            default: return new RandomFrontier(rng);
+        }
+    }
+
+    private interface Frontier {
+        /**
+         * Empties the frontier, keeping its capacity, before a traversal of graph.
+         */
+        void clear(IAdjacency graph);
+        void add(int edge);
+        int remove();
+        boolean isEmpty();
+    }
+
+    /**
+     * Removes a random edge by moving the last edge into its place.
+     */
+    private static class RandomFrontier implements Frontier {
+        private final IntArrayList edges = new IntArrayList();
+        private final Random rng;
+
+        RandomFrontier(Random rng) {
+            this.rng = rng;
+        }
+
+        public void clear(IAdjacency graph) {
+            edges.clear();
+        }
+
+        public void add(int edge) {
+            edges.add(edge);
+        }
+
+        public int remove() {
+            int index = rng.nextInt(edges.size());
+            int edge = edges.get(index);
+            edges.set(index, edges.get(edges.size() - 1));
+            edges.removeLast();
+            return edge;
+        }
+
+        public boolean isEmpty() {
+            return edges.isEmpty();
+        }
     }
 
-    private int chooseRandomStartVertex(Graph graph) {
-        // Gather all active vertices
-        ArrayList<Integer> activeVertices = new ArrayList<>();
-        for (int v = 0; v < graph.upperBound; v++) {
-            if (graph.isVertex(v)) {
-                activeVertices.add(v);
+    private static class StackFrontier implements Frontier {
+        private final IntArrayList edges = new IntArrayList();
+
+        public void clear(IAdjacency graph) {
+            edges.clear();
+        }
+
+        public void add(int edge) {
+            edges.add(edge);
+        }
+
+        public int remove() {
+            return edges.removeLast();
+        }
+
+        public boolean isEmpty() {
+            return edges.isEmpty();
+        }
+    }
+
+    /**
+     * Edges enter the frontier at most once, so the queue never needs to reuse slots.
+     */
+    private static class QueueFrontier implements Frontier {
+        private final IntArrayList edges = new IntArrayList();
+        private int head = 0;
+
+        public void clear(IAdjacency graph) {
+            edges.clear();
+            head = 0;
+        }
+
+        public void add(int edge) {
+            edges.add(edge);
+        }
+
+        public int remove() {
+            return edges.get(head++);
+        }
+
+        public boolean isEmpty() {
+            return head == edges.size();
+        }
+    }
+
+    /**
+     * Binary min-heap of edges keyed by their weight, ties being broken by a random
+     * number drawn when the edge is added. On a graph of distinct weights this is
+     * Prim's algorithm; on an unweighted graph (every GraphClasses family has
+     * weight 0) it is Prim's algorithm on random weights.
+     */
+    private static class WeightedFrontier implements Frontier {
+        private final Random rng;
+        private IAdjacency graph;
+        private int[] edges = new int[16];
+        private double[] keys = new double[16];
+        private int[] ties = new int[16];
+        private int size = 0;
+
+        WeightedFrontier(Random rng) {
+            this.rng = rng;
+        }
+
+        private boolean less(int i, double key, int tie) {
+            return keys[i] < key || (keys[i] == key && ties[i] < tie);
+        }
+
+        public void clear(IAdjacency graph) {
+            this.graph = graph;
+            size = 0;
+        }
+
+        public void add(int edge) {
+            if (size == edges.length) {
+                edges = Arrays.copyOf(edges, 2 * size);
+                keys = Arrays.copyOf(keys, 2 * size);
+                ties = Arrays.copyOf(ties, 2 * size);
             }
+            double key = graph.edgeWeight(edge);
+            int tie = rng.nextInt();
+            int i = size++;
+            while (i > 0 && !less((i - 1) / 2, key, tie)) {
+                int parent = (i - 1) / 2;
+                edges[i] = edges[parent];
+                keys[i] = keys[parent];
+                ties[i] = ties[parent];
+                i = parent;
+            }
+            edges[i] = edge;
+            keys[i] = key;
+            ties[i] = tie;
         }
 
-        // Pick one at random
-        int randomIndex = rng.nextInt(activeVertices.size());
-        return activeVertices.get(randomIndex);
+        public int remove() {
+            int top = edges[0];
+            size--;
+            int edge = edges[size];
+            double key = keys[size];
+            int tie = ties[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && less(child + 1, keys[child], ties[child])) child++;
+                if (!less(child, key, tie)) break;
+                edges[i] = edges[child];
+                keys[i] = keys[child];
+                ties[i] = ties[child];
+                i = child;
+            }
+            edges[i] = edge;
+            keys[i] = key;
+            ties[i] = tie;
+            return top;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
     }
 }
@@ -0,0 +1,78 @@
+package RandomTreeAlgos;
+
+import Graph.IAdjacency;
+
+import java.util.Arrays;
+
+/**
+ * Turns a set of tree edges into parent pointers, as written by a TreeSampler.
+ * Scratch arrays are kept between calls.
+ */
+public class TreeOrienter {
+    private int[] offsets = new int[1];
+    private int[] next = new int[0];
+    private int[] incident = new int[0];
+    private int[] queue = new int[0];
+    private boolean[] reached = new boolean[0];
+
+    /**
+     * Orients the forest formed by edges[0 .. count-1] towards root, and each
+     * component not containing root towards its smallest vertex, by BFS over
+     * the tree edges grouped by vertex (as in a CSR graph).
+     */
+    public void orient(IAdjacency graph, int[] edges, int count, int root, int[] parent, int[] parentEdge) {
+        int n = graph.upperBound();
+        if (offsets.length < n + 1) {
+            offsets = new int[n + 1];
+            next = new int[n];
+            queue = new int[n];
+            reached = new boolean[n];
+        }
+        if (incident.length < 2 * count) incident = new int[2 * count];
+
+        // Group the tree edges by endpoint
+        Arrays.fill(offsets, 0, n + 1, 0);
+        for (int i = 0; i < count; i++) {
+            offsets[graph.edgeSource(edges[i]) + 1]++;
+            offsets[graph.edgeDest(edges[i]) + 1]++;
+        }
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        System.arraycopy(offsets, 0, next, 0, n);
+        for (int i = 0; i < count; i++) {
+            incident[next[graph.edgeSource(edges[i])]++] = edges[i];
+            incident[next[graph.edgeDest(edges[i])]++] = edges[i];
+        }
+
+        Arrays.fill(parent, 0, n, -1);
+        Arrays.fill(parentEdge, 0, n, -1);
+        Arrays.fill(reached, 0, n, false);
+        search(graph, root, parent, parentEdge);
+        for (int v = 0; v < n; v++) {
+            if (graph.isVertex(v) && !reached[v]) search(graph, v, parent, parentEdge);
+        }
+    }
+
+    /**
+     * BFS from root, assigning parents so that each edge is directed towards root.
+     * The array queue holds each vertex once.
+     */
+    private void search(IAdjacency graph, int root, int[] parent, int[] parentEdge) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        reached[root] = true;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int e = incident[i];
+                int neigh = (graph.edgeSource(e) == current) ? graph.edgeDest(e) : graph.edgeSource(e);
+                if (!reached[neigh]) {
+                    reached[neigh] = true;
+                    parent[neigh] = current;
+                    parentEdge[neigh] = e;
+                    queue[tail++] = neigh;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package RandomTreeAlgos;
+
+import Graph.IAdjacency;
+
+/**
+ * Batch sampling of spanning trees into caller-owned buffers.
+ * A tree is written as parent pointers towards its root: parent[v] is the parent
+ * of v and parentEdge[v] the id of the edge (v, parent[v]); both are -1 for the root
+ * and for inactive vertices. On a disconnected graph, samplers that allow it write
+ * a spanning forest, with one root per component.
+ *
+ * Samplers keep their scratch state between calls, so that once warmed up on a graph,
+ * sampling allocates nothing. A sampler must not be used by several threads at once.
+ */
+public interface TreeSampler {
+
+    /**
+     * Samples a spanning tree of the graph.
+     * @param parent buffer of at least graph.upperBound() entries
+     * @param parentEdge buffer of at least graph.upperBound() entries
+     * @return the root of the tree
+     */
+    int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge);
+
+    /**
+     * @return the smallest active vertex, the root of the samplers that orient
+     * their tree afterwards
+     * @throws IllegalArgumentException if the graph has no active vertex
+     */
+    static int smallestVertex(IAdjacency graph) {
+        for (int v = 0; v < graph.upperBound(); v++)
+            if (graph.isVertex(v)) return v;
+        throw new IllegalArgumentException("Graph has no vertex");
+    }
+
+    /**
+     * @return the ids of the edges of a tree written by sampleTree
+     */
+    static int[] treeEdgeIds(int[] parentEdge, int upperBound) {
+        int count = 0;
+        for (int v = 0; v < upperBound; v++)
+            if (parentEdge[v] >= 0) count++;
+        int[] edges = new int[count];
+        count = 0;
+        for (int v = 0; v < upperBound; v++)
+            if (parentEdge[v] >= 0) edges[count++] = parentEdge[v];
+        return edges;
+    }
+}
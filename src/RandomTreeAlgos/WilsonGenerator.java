@@ -1,14 +1,18 @@
 package RandomTreeAlgos;
 
+import Graph.CsrGraph;
 import Graph.Edge;
 import Graph.Graph;
+import Graph.IAdjacency;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
-public class WilsonGenerator {
+public class WilsonGenerator implements TreeSampler {
     private final Random rng;
+    private boolean[] inTree = new boolean[0];
+    private int[] starts = new int[0];
 
     public WilsonGenerator() {
         this.rng = new Random();
@@ -24,55 +28,80 @@ public class WilsonGenerator {
      * @return a list of edges forming a random spanning tree
      */
     public List<Edge> generateRandomSpanningTree(Graph graph) {
-        int n = graph.order;
-        boolean[] inTree = new boolean[graph.upperBound];
-        for (int i = 0; i < inTree.length; i++) {
-            inTree[i] = false;
-        }
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        return csr.toEdgeList(generateSpanningTreeEdgeIds(csr));
+    }
+
+    /**
+     * Generates a uniformly random spanning tree using Wilson's algorithm.
+     * @param graph the input graph (assumed connected)
+     * @return the ids of the edges forming a random spanning tree
+     */
+    public int[] generateSpanningTreeEdgeIds(IAdjacency graph) {
+        int[] parent = new int[graph.upperBound()];
+        int[] parentEdge = new int[graph.upperBound()];
+        sampleTree(graph, parent, parentEdge);
+        return TreeSampler.treeEdgeIds(parentEdge, graph.upperBound());
+    }
+
+    /**
+     * Samples a uniformly random spanning tree using Wilson's algorithm.
+     * Runs in time linear in the mean hitting time of the graph: the walks
+     * write straight into the parent arrays, and start from the vertices of
+     * a random permutation, skipping those already in the tree.
+     * @param graph the input graph (assumed connected)
+     */
+    @Override
+    public int sampleTree(IAdjacency graph, int[] parent, int[] parentEdge) {
+        int n = graph.order();
+        int upperBound = graph.upperBound();
+        if (inTree.length < upperBound) inTree = new boolean[upperBound];
+        else Arrays.fill(inTree, 0, upperBound, false);
+        // During a walk, parent[v] = the next vertex visited after v,
+        // parentEdge[v] = the edge taken to get there. Entries of vertices not
+        // in the tree and not on the current walk are stale but never read.
+        Arrays.fill(parent, 0, upperBound, -1);
+        Arrays.fill(parentEdge, 0, upperBound, -1);
 
         // Choose initial vertex (e.g., vertex with max degree)
         int root = chooseInitialVertex(graph);
         inTree[root] = true;
+        int treeSize = 1;
 
-        List<Edge> spanningTree = new ArrayList<>();
+        shuffleVertices(graph);
 
-        // While not all vertices are in the tree
-        while (!allVerticesInTree(inTree, n)) {
-            int u = chooseRandomOutsideVertex(inTree, graph);
-            // parent[v] = the next vertex visited after v in the random walk
-            // parent is used to reconstruct the path
-            int[] parent = new int[graph.upperBound];
-            for (int i = 0; i < parent.length; i++) parent[i] = -1;
+        for (int i = 0; treeSize < n; i++) {
+            int u = starts[i];
+            if (inTree[u]) continue;
 
             int current = u;
             while (!inTree[current]) {
                 // Perform random walk step
-                ArrayList<Edge> edges = new ArrayList<>(graph.getIncidency().get(current));
-                Edge chosen = edges.get(rng.nextInt(edges.size()));
-                int next = (chosen.getSource() == current) ? chosen.getDest() : chosen.getSource();
-                parent[current] = next;
-                current = next;
+                int k = rng.nextInt(graph.degree(current));
+                parent[current] = graph.neighbor(current, k);
+                parentEdge[current] = graph.incidentEdge(current, k);
+                current = parent[current];
             }
 
             // current is now in the tree
-            // Reconstruct cycle-free path from u to current using parent pointers
-            // and add it to the tree.
-            addPathToTree(u, current, parent, inTree, spanningTree, graph);
+            // The loop-erased path from u to current is given by the parent pointers:
+            // add it to the tree.
+            treeSize += addPathToTree(u, parent, inTree);
         }
 
-        return spanningTree;
+        return root;
     }
 
     /**
      * Choose the initial vertex for Wilson's algorithm.
      * According to instructions, prefer a vertex of maximum degree.
      */
-    private int chooseInitialVertex(Graph graph) {
+    private int chooseInitialVertex(IAdjacency graph) {
         int maxDeg = -1;
         int vertex = 0;
-        for (int v = 0; v < graph.upperBound; v++) {
+        for (int v = 0; v < graph.upperBound(); v++) {
             if (graph.isVertex(v)) {
-                int deg = graph.getIncidency().get(v).size();
+                int deg = graph.degree(v);
                 if (deg > maxDeg) {
                     maxDeg = deg;
                     vertex = v;
@@ -83,62 +112,38 @@ public class WilsonGenerator {
     }
 
     /**
-     * Check if all active vertices are in the tree.
+     * Puts the active vertices of the graph, in random order, at the start of starts.
      */
-    private boolean allVerticesInTree(boolean[] inTree, int n) {
+    private void shuffleVertices(IAdjacency graph) {
+        if (starts.length < graph.order()) starts = new int[graph.order()];
         int count = 0;
-        for (int i = 0; i < inTree.length; i++) {
-            if (inTree[i]) count++;
+        for (int v = 0; v < graph.upperBound(); v++)
+            if (graph.isVertex(v)) starts[count++] = v;
+        for (int i = count - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = starts[i];
+            starts[i] = starts[j];
+            starts[j] = tmp;
         }
-        return count == n;
     }
 
     /**
-     * Choose a random vertex that is not yet in the tree.
-     */
-    private int chooseRandomOutsideVertex(boolean[] inTree, Graph graph) {
-        ArrayList<Integer> outside = new ArrayList<>();
-        for (int v = 0; v < graph.upperBound; v++) {
-            if (graph.isVertex(v) && !inTree[v]) {
-                outside.add(v);
-            }
-        }
-        return outside.get(rng.nextInt(outside.size()));
-    }
-
-    /**
-     * Add the path from u to current (which is in T) following parent pointers.
+     * Add the path from u to the tree following parent pointers.
      * This path does not contain cycles because parent overwriting removed them.
      * Once we've reached a vertex in T, we can stop.
+     * @return the number of vertices added to the tree
      */
-    private void addPathToTree(int u, int current, int[] parent,
-                               boolean[] inTree, List<Edge> spanningTree, Graph graph) {
+    private int addPathToTree(int u, int[] parent, boolean[] inTree) {
         // We'll reconstruct the path backwards from u until we hit a vertex in T
-        // The path is: u -> parent[u] -> parent[ parent[u] ] -> ... until we reach 'current' in T
-        // Actually, we know current is in T, so we climb from u up until we find a vertex in T.
+        // The path is: u -> parent[u] -> parent[ parent[u] ] -> ... until we reach a vertex in T
         int x = u;
+        int added = 0;
         while (!inTree[x]) {
-            int y = parent[x]; // y is the next vertex in the chain
-            // Add edge (x,y) to the spanning tree
-            Edge e = findEdgeInGraph(graph, x, y);
-            if (e != null) {
-                spanningTree.add(e);
-            }
+            // The edge (x,parent[x]) taken by the walk joins the spanning tree
             inTree[x] = true;
-            x = y; // move upwards
-        }
-    }
-
-    /**
-     * Find the edge (x,y) or (y,x) in the graph incidency list.
-     */
-    private Edge findEdgeInGraph(Graph graph, int x, int y) {
-        for (Edge e : graph.getIncidency().get(x)) {
-            if ((e.getSource() == x && e.getDest() == y) ||
-                    (e.getSource() == y && e.getDest() == x)) {
-                return e;
-            }
+            x = parent[x]; // move upwards
+            added++;
         }
-        return null; // should not happen if graph is connected
+        return added;
     }
 }
@@ -0,0 +1,195 @@
+package Utilities;
+
+import Graph.CsrFileBuilder;
+import Graph.CsrGraph;
+import Graph.EdgeTable;
+import Graph.WeightColumn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads graphs from text edge lists: one edge "u v" or "u v weight" per line,
+ * fields separated by spaces, tabs or commas. Lines starting with '#' or '%'
+ * are comments. Self-loops are skipped.
+ * The file is parsed in fixed-size chunks straight from its bytes: no String,
+ * no Edge object is created per line.
+ */
+public class EdgeListImporter {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private interface EdgeConsumer {
+        void accept(int u, int v, double weight);
+    }
+
+    private final boolean weighted;
+    private final int firstVertex;
+
+    // parsing state
+    private long lineNumber;
+    private int position;
+
+    /**
+     * @param weighted whether lines carry a third field, the weight of the edge
+     * @param firstVertex the id of the first vertex in the file (0, or 1 for 1-based formats)
+     */
+    public EdgeListImporter(boolean weighted, int firstVertex) {
+        this.weighted = weighted;
+        this.firstVertex = firstVertex;
+    }
+
+    /**
+     * Reads an edge list into a CSR graph on the heap.
+     * The vertices are 0 .. (largest vertex id in the file).
+     */
+    public CsrGraph importGraph(Path path) throws IOException {
+        EdgeTable edges = new EdgeTable(1024, weighted ? WeightColumn.doubles(1024) : WeightColumn.none());
+        int[] upperBound = {0};
+        scan(path, (u, v, weight) -> {
+            if (weighted) edges.add(u, v, weight);
+            else edges.add(u, v);
+            upperBound[0] = Math.max(upperBound[0], Math.max(u, v) + 1);
+        });
+        edges.trimToSize();
+        return new CsrGraph(upperBound[0], edges);
+    }
+
+    /**
+     * Converts an edge list into a graph file for MappedCsrGraph.open,
+     * in two streaming passes over the text: one counting the degrees,
+     * one writing the edges in place. Only the degrees are kept on the heap.
+     */
+    public void importToFile(Path path, Path graphFile) throws IOException {
+        int[][] degrees = {new int[1024]};
+        long[] edgeCount = {0};
+        int[] upperBound = {0};
+        scan(path, (u, v, weight) -> {
+            int needed = Math.max(u, v) + 1;
+            if (needed > degrees[0].length)
+                degrees[0] = Arrays.copyOf(degrees[0], Math.max(needed, 2 * degrees[0].length));
+            degrees[0][u]++;
+            degrees[0][v]++;
+            edgeCount[0]++;
+            upperBound[0] = Math.max(upperBound[0], needed);
+        });
+
+        try (CsrFileBuilder builder = new CsrFileBuilder(graphFile,
+                Arrays.copyOf(degrees[0], upperBound[0]), edgeCount[0], weighted)) {
+            scan(path, builder::addEdge);
+            builder.finish();
+        }
+    }
+
+    private void scan(Path path, EdgeConsumer consumer) throws IOException {
+        lineNumber = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            byte[] bytes = chunk.array();
+            byte[] line = new byte[256];
+            int length = 0;
+            while (channel.read(chunk) >= 0) {
+                int end = chunk.position();
+                for (int i = 0; i < end; i++) {
+                    byte b = bytes[i];
+                    if (b == '\n') {
+                        parseLine(line, length, consumer);
+                        length = 0;
+                    } else {
+                        if (length == line.length) line = Arrays.copyOf(line, 2 * length);
+                        line[length++] = b;
+                    }
+                }
+                chunk.clear();
+            }
+            if (length > 0) parseLine(line, length, consumer);
+        }
+    }
+
+    private void parseLine(byte[] line, int length, EdgeConsumer consumer) throws IOException {
+        lineNumber++;
+        position = 0;
+        skipSeparators(line, length);
+        if (position == length || line[position] == '#' || line[position] == '%') return;
+
+        int u = parseVertex(line, length);
+        skipSeparators(line, length);
+        int v = parseVertex(line, length);
+        double weight = 0;
+        if (weighted) {
+            skipSeparators(line, length);
+            weight = parseWeight(line, length);
+        }
+        if (u != v) consumer.accept(u, v, weight);
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == ',' || b == '\r';
+    }
+
+    private void skipSeparators(byte[] line, int length) {
+        while (position < length && isSeparator(line[position])) position++;
+    }
+
+    private int parseVertex(byte[] line, int length) throws IOException {
+        int start = position;
+        long value = 0;
+        while (position < length && line[position] >= '0' && line[position] <= '9') {
+            value = 10 * value + (line[position++] - '0');
+            if (value > Integer.MAX_VALUE) throw error("vertex id too large");
+        }
+        if (position == start || (position < length && !isSeparator(line[position])))
+            throw error("vertex id expected");
+        value -= firstVertex;
+        if (value < 0) throw error("vertex id below " + firstVertex);
+        return (int) value;
+    }
+
+    /**
+     * Parses a decimal number. Numbers with at most 15 significant digits and
+     * a small exponent are computed exactly from their digits, others go through
+     * Double.parseDouble.
+     */
+    private double parseWeight(byte[] line, int length) throws IOException {
+        int start = position;
+        while (position < length && !isSeparator(line[position])) position++;
+        if (position == start) throw error("weight expected");
+
+        int i = start;
+        boolean negative = line[i] == '-';
+        if (line[i] == '-' || line[i] == '+') i++;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean simple = i < position;
+        for (; i < position && line[i] >= '0' && line[i] <= '9'; i++, digits++)
+            mantissa = 10 * mantissa + (line[i] - '0');
+        if (i < position && line[i] == '.') {
+            for (i++; i < position && line[i] >= '0' && line[i] <= '9'; i++, digits++, exponent--)
+                mantissa = 10 * mantissa + (line[i] - '0');
+        }
+        simple = simple && i == position && digits > 0 && digits <= 15 && -exponent < POWERS_OF_TEN.length;
+        if (simple) {
+            double value = mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(line, start, position - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw error("invalid weight");
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+}
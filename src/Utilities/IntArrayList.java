@@ -0,0 +1,60 @@
+package Utilities;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints.
+ * Used in place of ArrayList<Integer> in hot loops to avoid boxing.
+ */
+public class IntArrayList {
+    private int[] data;
+    private int size;
+
+    public IntArrayList() {
+        this(16);
+    }
+
+    public IntArrayList(int capacity) {
+        this.data = new int[Math.max(1, capacity)];
+        this.size = 0;
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, 2 * data.length);
+        }
+        data[size++] = value;
+    }
+
+    public int get(int index) {
+        return data[index];
+    }
+
+    public void set(int index, int value) {
+        data[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Removes the last value.
+     * @return the removed value
+     */
+    public int removeLast() {
+        return data[--size];
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
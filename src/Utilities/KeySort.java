@@ -0,0 +1,119 @@
+package Utilities;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts an int[] of items by a parallel double[] of keys,
+ * both arrays being permuted together.
+ * Works on primitive arrays only: no boxing and no comparator calls.
+ */
+public class KeySort {
+
+    private static final int INSERTION_THRESHOLD = 16;
+    // below this size, ranges are sorted sequentially by parallelSort
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    public static void sort(double[] keys, int[] items) {
+        sort(keys, items, 0, keys.length);
+    }
+
+    /**
+     * Sorts the range [from, to) of both arrays by increasing key.
+     */
+    public static void sort(double[] keys, int[] items, int from, int to) {
+        // quicksort, recursing on the smaller part to bound the stack depth
+        while (to - from > INSERTION_THRESHOLD) {
+            int split = partition(keys, items, from, to);
+            if (split - from < to - split) {
+                sort(keys, items, from, split);
+                from = split;
+            } else {
+                sort(keys, items, split, to);
+                to = split;
+            }
+        }
+        insertionSort(keys, items, from, to);
+    }
+
+    public static void parallelSort(double[] keys, int[] items) {
+        parallelSort(keys, items, 0, keys.length);
+    }
+
+    /**
+     * Sorts the range [from, to) of both arrays by increasing key, with the same
+     * quicksort as sort, both parts of each partition being sorted in parallel
+     * in the common fork-join pool.
+     */
+    public static void parallelSort(double[] keys, int[] items, int from, int to) {
+        ForkJoinPool.commonPool().invoke(new SortTask(keys, items, from, to));
+    }
+
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final double[] keys;
+        private final int[] items;
+        private final int from;
+        private final int to;
+
+        SortTask(double[] keys, int[] items, int from, int to) {
+            this.keys = keys;
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                sort(keys, items, from, to);
+                return;
+            }
+            int split = partition(keys, items, from, to);
+            invokeAll(new SortTask(keys, items, from, split), new SortTask(keys, items, split, to));
+        }
+    }
+
+    /**
+     * Hoare partition around the median of three keys.
+     * Both parts are non-empty when the range holds at least two elements.
+     * @return split such that keys in [from, split) <= keys in [split, to)
+     */
+    public static int partition(double[] keys, int[] items, int from, int to) {
+        int mid = (from + to) >>> 1;
+        double a = keys[from], b = keys[mid], c = keys[to - 1];
+        double pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        int i = from - 1;
+        int j = to;
+        while (true) {
+            do i++; while (keys[i] < pivot);
+            do j--; while (keys[j] > pivot);
+            if (i >= j) return j + 1;
+            swap(keys, items, i, j);
+        }
+    }
+
+    private static void insertionSort(double[] keys, int[] items, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double key = keys[i];
+            int item = items[i];
+            int j = i - 1;
+            while (j >= from && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                items[j + 1] = items[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            items[j + 1] = item;
+        }
+    }
+
+    private static void swap(double[] keys, int[] items, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+}
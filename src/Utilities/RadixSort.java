@@ -0,0 +1,53 @@
+package Utilities;
+
+import java.util.Arrays;
+
+/**
+ * LSD radix sort of an int[] of items by a parallel long[] of keys, compared as unsigned.
+ * Eight stable passes of one byte each: O(n), no comparisons.
+ */
+public class RadixSort {
+
+    private static final int RADIX = 256;
+
+    private long[] keyBuffer = new long[0];
+    private int[] itemBuffer = new int[0];
+    private final int[] count = new int[RADIX];
+
+    /**
+     * Sorts both arrays by increasing key. Items with equal keys keep their order.
+     */
+    public static void sort(long[] keys, int[] items) {
+        new RadixSort().sort(keys, items, keys.length);
+    }
+
+    /**
+     * Sorts the first n entries of both arrays by increasing key, reusing the
+     * buffers of this sorter. Items with equal keys keep their order.
+     */
+    public void sort(long[] keys, int[] items, int n) {
+        if (keyBuffer.length < n) {
+            keyBuffer = new long[n];
+            itemBuffer = new int[n];
+        }
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) count[(int) (keys[i] >>> shift) & 0xFF]++;
+            // every key has the same byte: the pass would not move anything
+            if (n > 0 && count[(int) (keys[0] >>> shift) & 0xFF] == n) continue;
+            int start = 0;
+            for (int b = 0; b < RADIX; b++) {
+                int c = count[b];
+                count[b] = start;
+                start += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int slot = count[(int) (keys[i] >>> shift) & 0xFF]++;
+                keyBuffer[slot] = keys[i];
+                itemBuffer[slot] = items[i];
+            }
+            System.arraycopy(keyBuffer, 0, keys, 0, n);
+            System.arraycopy(itemBuffer, 0, items, 0, n);
+        }
+    }
+}
@@ -1,36 +1,119 @@
 package Utilities;
 
-import Graph.Edge;
+import Graph.EdgeTable;
 import Graph.Graph;
+import Graph.WeightColumn;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * Assigns random weights to all edges in a graph.
+ * Each edge id is visited once. Edge ids are cut into fixed-size blocks, each with
+ * its own random stream split from the seed, and blocks are filled in parallel:
+ * for a given seed, the weights do not depend on the number of threads.
  */
 public class RandomWeightAssigner {
-    private final Random rng;
+    // number of consecutive edge ids drawn from the same stream
+    private static final int BLOCK = 1 << 14;
+
+    private interface BlockFiller {
+        void fill(int from, int to, SplittableRandom rng);
+    }
+
+    private final SplittableRandom rng;
+    private final WeightDistribution distribution;
 
     public RandomWeightAssigner() {
-        this.rng = new Random();
+        this(WeightDistribution.uniform());
     }
 
     public RandomWeightAssigner(long seed) {
-        this.rng = new Random(seed);
+        this(WeightDistribution.uniform(), seed);
+    }
+
+    public RandomWeightAssigner(WeightDistribution distribution) {
+        this.rng = new SplittableRandom();
+        this.distribution = distribution;
+    }
+
+    public RandomWeightAssigner(WeightDistribution distribution, long seed) {
+        this.rng = new SplittableRandom(seed);
+        this.distribution = distribution;
     }
 
     /**
-     * Assigns a random weight in the range [0,1) to each edge in the graph.
+     * Assigns a random weight to each edge in the graph
+     * (in the range [0,1) with the default uniform distribution).
      * @param graph the graph whose edges will be assigned random weights
      */
     public void assignRandomWeights(Graph graph) {
-        for (int v = 0; v < graph.upperBound; v++) {
-            if (graph.isVertex(v)) {
-                for (Edge e : graph.getIncidency().get(v)) {
-                    // Assign a random weight
-                    e.setWeight(rng.nextDouble());
-                }
-            }
-        }
+        forEachBlock(graph.edgeCardinality(), (from, to, rng) -> {
+            for (int e = from; e < to; e++)
+                graph.getEdge(e).setWeight(distribution.draw(rng));
+        });
+    }
+
+    /**
+     * Assigns a random weight to each edge of an edge table
+     * (in the range [0,1) with the default uniform distribution).
+     * @param edges the edges which will be assigned random weights
+     */
+    public void assignRandomWeights(EdgeTable edges) {
+        WeightColumn weights = edges.weights;
+        forEachBlock(edges.size(), (from, to, rng) -> {
+            for (int e = from; e < to; e++)
+                weights.set(e, distribution.draw(rng));
+        });
+    }
+
+    /**
+     * Draws weights[0 .. m-1] from the distribution, sequentially and without allocating,
+     * without touching any stored weight.
+     */
+    public synchronized void fillWeights(double[] weights, int m) {
+        for (int e = 0; e < m; e++)
+            weights[e] = distribution.draw(rng);
+    }
+
+    /**
+     * Draws an independent uniform 64-bit key for each of m edges,
+     * without touching any stored weight. With 64 bits, two keys of a graph
+     * of 10^7 edges are equal with probability about 3 * 10^-6.
+     * @return keys[e], the key of edge e
+     */
+    public long[] drawKeys(int m) {
+        long[] keys = new long[m];
+        forEachBlock(m, (from, to, rng) -> {
+            for (int e = from; e < to; e++)
+                keys[e] = rng.nextLong();
+        });
+        return keys;
+    }
+
+    /**
+     * Draws uniform 64-bit keys into keys[0 .. m-1], sequentially and without allocating.
+     */
+    public synchronized void fillKeys(long[] keys, int m) {
+        for (int e = 0; e < m; e++)
+            keys[e] = rng.nextLong();
+    }
+
+    /**
+     * Runs the filler on the blocks of [0, m) in parallel, block b getting the b-th
+     * stream split from a stream of its own for this call.
+     */
+    private void forEachBlock(int m, BlockFiller filler) {
+        SplittableRandom root = nextStream();
+        int blocks = (int) (((long) m + BLOCK - 1) / BLOCK);
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++)
+            streams[b] = root.split();
+        IntStream.range(0, blocks).parallel().forEach(b ->
+                filler.fill(b * BLOCK, (int) Math.min(m, (long) (b + 1) * BLOCK), streams[b]));
+    }
+
+    private synchronized SplittableRandom nextStream() {
+        return rng.split();
     }
 }
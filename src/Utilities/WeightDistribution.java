@@ -0,0 +1,33 @@
+package Utilities;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the random weights drawn by RandomWeightAssigner.
+ */
+@FunctionalInterface
+public interface WeightDistribution {
+
+    double draw(SplittableRandom rng);
+
+    /**
+     * @return the uniform distribution on [0,1)
+     */
+    static WeightDistribution uniform() {
+        return SplittableRandom::nextDouble;
+    }
+
+    /**
+     * @return the exponential distribution of the given rate (mean 1/rate)
+     */
+    static WeightDistribution exponential(double rate) {
+        return rng -> -Math.log1p(-rng.nextDouble()) / rate;
+    }
+
+    /**
+     * @return the uniform distribution on the integers 0 .. bound-1
+     */
+    static WeightDistribution integer(int bound) {
+        return rng -> rng.nextInt(bound);
+    }
+}
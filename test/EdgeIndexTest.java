@@ -0,0 +1,63 @@
+import Graph.EdgeIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Random puts and removals on EdgeIndex, checked against a HashMap after every step.
+ * With few vertices the table stays small: probe runs often wrap around its end,
+ * and removals shift entries back across the wrap.
+ * Run with: make test
+ */
+public class EdgeIndexTest {
+
+    public static void main(String[] args) {
+        for (int n : new int[] {8, 12, 40}) run(n, new Random(n));
+        System.out.println("EdgeIndexTest: OK");
+    }
+
+    private static void run(int n, Random rng) {
+        EdgeIndex index = new EdgeIndex(0);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 100_000; step++) {
+            int u = rng.nextInt(n);
+            int v = rng.nextInt(n);
+            long key = Math.min(u, v) * (long) n + Math.max(u, v);
+            int operation = rng.nextInt(3);
+            if (operation == 0) {
+                index.put(u, v, step);
+                expected.put(key, step);
+            } else if (operation == 1) {
+                boolean added = index.putIfAbsent(v, u, step);
+                check(added == !expected.containsKey(key), "step " + step + ": putIfAbsent");
+                expected.putIfAbsent(key, step);
+            } else {
+                index.remove(v, u);
+                expected.remove(key);
+            }
+            check(index.size() == expected.size(), "step " + step + ": size " + index.size());
+            if (step % 64 == 0) checkAll(index, expected, n, step);
+            if (step == 50_000) {
+                index.clear();
+                expected.clear();
+                checkAll(index, expected, n, step);
+            }
+        }
+        checkAll(index, expected, n, -1);
+    }
+
+    private static void checkAll(EdgeIndex index, Map<Long, Integer> expected, int n, int step) {
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                Integer edge = expected.get(Math.min(u, v) * (long) n + Math.max(u, v));
+                check(index.get(u, v) == (edge == null ? -1 : edge),
+                        "step " + step + ": wrong edge for {" + u + "," + v + "}");
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
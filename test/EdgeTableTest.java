@@ -0,0 +1,55 @@
+import Graph.CsrGraph;
+import Graph.EdgeTable;
+import Graph.WeightColumn;
+
+/**
+ * Edge tables grow, trim and keep ids in insertion order with every weight column:
+ * doubles, floats (weights rounded to float), and none, whose weights read 0
+ * until the first set widens it. A CsrGraph built on a table keeps its ids.
+ * Run with: make test
+ */
+public class EdgeTableTest {
+
+    public static void main(String[] args) {
+        int m = 1000;
+        WeightColumn[] columns = {WeightColumn.doubles(1), WeightColumn.floats(1), WeightColumn.none()};
+        for (WeightColumn column : columns) {
+            String name = column.getClass().getSimpleName();
+            EdgeTable edges = new EdgeTable(1, column);
+            for (int e = 0; e < m; e++) {
+                int id = (e % 2 == 0 || column instanceof WeightColumn.None)
+                        ? edges.add(e % 50, (e + 1) % 50)
+                        : edges.add(e % 50, (e + 1) % 50, e + 0.1);
+                check(id == e, name + ": edge " + e + " got id " + id);
+            }
+            for (int e = 0; e < m; e++) {
+                double weight = (e % 2 == 0 || column instanceof WeightColumn.None) ? 0 : e + 0.1;
+                if (column instanceof WeightColumn.Floats) weight = (float) weight;
+                check(edges.weight(e) == weight, name + ": weight of " + e);
+            }
+
+            edges.weights.set(m - 1, 2.5);
+            edges.trimToSize();
+            check(edges.size() == m && edges.source.length == m && edges.dest.length == m, name + ": trim");
+            check(edges.weight(m - 1) == 2.5 && edges.weight(0) == 0, name + ": weights lost by the trim");
+            edges.add(7, 8, 1.5);
+            check(edges.size() == m + 1 && edges.weight(m) == 1.5, name + ": growth after the trim");
+
+            CsrGraph graph = new CsrGraph(50, edges);
+            check(graph.edgeCardinality() == m + 1, name + ": CSR edge count");
+            for (int v = 0; v < 50; v++) {
+                for (int k = 0; k < graph.degree(v); k++) {
+                    int e = graph.incidentEdge(v, k);
+                    int other = (edges.source[e] == v ? edges.dest[e] : edges.source[e]);
+                    check(graph.neighbor(v, k) == other, name + ": CSR neighbor of " + v);
+                    check(graph.edgeWeight(e) == edges.weight(e), name + ": CSR weight of " + e);
+                }
+            }
+        }
+        System.out.println("EdgeTableTest: OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
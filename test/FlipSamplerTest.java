@@ -0,0 +1,61 @@
+import Graph.CsrGraph;
+import GraphClasses.Grid;
+import RandomTreeAlgos.FlipSampler;
+import RandomTreeAlgos.TreeSampler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The flip chain must move: consecutive samples differ, and on the 3x3 grid,
+ * which has 192 spanning trees, the samples are uniform (chi-squared test).
+ * Run with: make test
+ */
+public class FlipSamplerTest {
+
+    private static final int GRID_3X3_TREES = 192;
+    // chi-squared quantile 0.999 with 191 degrees of freedom
+    private static final double CHI2_THRESHOLD = 260;
+
+    public static void main(String[] args) {
+        CsrGraph grid = CsrGraph.fromGraph(new Grid(10, 10).graph);
+        int n = grid.upperBound();
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        FlipSampler sampler = new FlipSampler(n, 1);
+        sampler.sampleTree(grid, parent, parentEdge);
+        int[] previous = TreeSampler.treeEdgeIds(parentEdge, n);
+        for (int i = 0; i < 50; i++) {
+            sampler.sampleTree(grid, parent, parentEdge);
+            int[] tree = TreeSampler.treeEdgeIds(parentEdge, n);
+            check(tree.length == n - 1, "not a spanning tree");
+            check(!Arrays.equals(previous, tree), "two consecutive samples are the same tree");
+            previous = tree;
+        }
+
+        CsrGraph small = CsrGraph.fromGraph(new Grid(3, 3).graph);
+        n = small.upperBound();
+        parent = new int[n];
+        parentEdge = new int[n];
+        sampler = new FlipSampler(200, 2);
+        int samples = 100 * GRID_3X3_TREES;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            sampler.sampleTree(small, parent, parentEdge);
+            int[] tree = TreeSampler.treeEdgeIds(parentEdge, n);
+            Arrays.sort(tree);
+            counts.merge(Arrays.toString(tree), 1, Integer::sum);
+        }
+        check(counts.size() == GRID_3X3_TREES, counts.size() + " distinct trees out of " + GRID_3X3_TREES);
+        double expected = (double) samples / GRID_3X3_TREES;
+        double chi2 = 0;
+        for (int count : counts.values()) chi2 += (count - expected) * (count - expected) / expected;
+        check(chi2 < CHI2_THRESHOLD, "not uniform, chi2 = " + chi2);
+        System.out.println("FlipSamplerTest: OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,84 @@
+import Graph.Edge;
+import Graph.Graph;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random additions, removals and vertex deletions, parallel edges included,
+ * checked after every step against a plain list of the remaining edges:
+ * ids stay dense and map to the edges in the incidency lists, and each edge
+ * sits once in the list of each extremity, where removeEdge finds it.
+ * Run with: make test
+ */
+public class GraphTest {
+
+    public static void main(String[] args) {
+        int n = 12;
+        Random rng = new Random(1);
+        Graph graph = new Graph(n);
+        List<Edge> remaining = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            int operation = rng.nextInt(10);
+            if (operation < 6) {
+                int u = rng.nextInt(n);
+                int v = rng.nextInt(n);
+                Edge edge = new Edge(u, v, step);
+                graph.addEdge(edge);
+                if (u != v && graph.isVertex(u) && graph.isVertex(v)) remaining.add(edge);
+            } else if (operation < 9) {
+                if (remaining.isEmpty()) continue;
+                Edge edge = remaining.remove(rng.nextInt(remaining.size()));
+                graph.removeEdge(edge);
+                // a second removal, or the removal of a foreign edge, changes nothing
+                graph.removeEdge(edge);
+                graph.removeEdge(new Edge(edge.getSource(), edge.getDest(), 0));
+            } else {
+                int v = rng.nextInt(n);
+                if (graph.isVertex(v)) {
+                    graph.deleteVertex(v);
+                    remaining.removeIf(e -> e.getSource() == v || e.getDest() == v);
+                } else {
+                    graph.addVertex(v);
+                }
+            }
+            checkConsistency(graph, remaining, step);
+        }
+
+        Graph copy = graph.copy();
+        check(copy.edgeCardinality() == graph.edgeCardinality(), "copy lost edges");
+        check(copy.order() == graph.order(), "copy changed the order");
+        System.out.println("GraphTest: OK");
+    }
+
+    private static void checkConsistency(Graph graph, List<Edge> remaining, int step) {
+        int m = graph.edgeCardinality();
+        check(m == remaining.size(), "step " + step + ": " + m + " edges instead of " + remaining.size());
+        Set<Edge> byId = new HashSet<>();
+        for (int id = 0; id < m; id++) byId.add(graph.getEdge(id));
+        check(byId.equals(new HashSet<>(remaining)), "step " + step + ": ids do not cover the edges");
+
+        int slots = 0;
+        for (int v = 0; v < graph.upperBound(); v++) {
+            ArrayList<Edge> list = graph.getIncidency().get(v);
+            check(graph.isVertex(v) || list.isEmpty(), "step " + step + ": inactive vertex " + v + " has edges");
+            check(graph.degree(v) == list.size(), "step " + step + ": degree of " + v);
+            for (int k = 0; k < list.size(); k++) {
+                Edge edge = list.get(k);
+                int id = graph.incidentEdge(v, k);
+                check(id >= 0 && id < m && graph.getEdge(id) == edge, "step " + step + ": wrong id at " + v);
+                check(graph.neighbor(v, k) == edge.oppositeExtremity(v), "step " + step + ": wrong neighbor at " + v);
+                check(graph.findEdge(v, edge.oppositeExtremity(v)) != null, "step " + step + ": findEdge misses an edge");
+            }
+            slots += list.size();
+        }
+        check(slots == 2 * m, "step " + step + ": an edge is not in the lists of both extremities");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
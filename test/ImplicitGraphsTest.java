@@ -0,0 +1,74 @@
+import Graph.Graph;
+import Graph.IAdjacency;
+import GraphClasses.Complete;
+import GraphClasses.Grid;
+import GraphClasses.ImplicitComplete;
+import GraphClasses.ImplicitGrid;
+import GraphClasses.ImplicitLollipop;
+import GraphClasses.Lollipop;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The implicit grid, complete graph and lollipop must be the graphs that Grid,
+ * Complete and Lollipop materialize (the lollipops shuffled by the same seed):
+ * same vertices and edges. Edge ids may differ, so edges are compared as pairs;
+ * each implicit graph must also be consistent with itself, the k-th neighbor of v
+ * being the other extremity of its k-th incident edge, and every edge appearing
+ * at both of its extremities.
+ * Run with: make test
+ */
+public class ImplicitGraphsTest {
+
+    public static void main(String[] args) {
+        int[][] sizes = {{1, 1}, {1, 7}, {7, 1}, {2, 2}, {5, 3}, {3, 5}, {10, 10}};
+        for (int[] size : sizes) {
+            String name = "grid " + size[0] + "x" + size[1];
+            checkSame(new Grid(size[0], size[1]).graph, new ImplicitGrid(size[0], size[1]), name);
+        }
+        for (int order : new int[] {1, 2, 3, 10, 40}) {
+            checkSame(new Complete(order).graph, new ImplicitComplete(order), "complete " + order);
+            checkSame(new Lollipop(order, new Random(order)).graph,
+                      new ImplicitLollipop(order, new Random(order)), "lollipop " + order);
+        }
+        System.out.println("ImplicitGraphsTest: OK");
+    }
+
+    private static void checkSame(Graph expected, IAdjacency actual, String name) {
+        check(actual.upperBound() == expected.upperBound(), name + ": upper bound " + actual.upperBound());
+        check(actual.order() == expected.order(), name + ": order " + actual.order());
+        check(actual.edgeCardinality() == expected.edgeCardinality(),
+                name + ": " + actual.edgeCardinality() + " edges instead of " + expected.edgeCardinality());
+        check(pairs(actual).equals(pairs(expected)), name + ": different edges");
+
+        int[] seen = new int[actual.edgeCardinality()];
+        for (int v = 0; v < actual.upperBound(); v++) {
+            check(actual.isVertex(v) == expected.isVertex(v), name + ": vertex " + v);
+            check(actual.degree(v) == expected.degree(v), name + ": degree of " + v);
+            for (int k = 0; k < actual.degree(v); k++) {
+                int e = actual.incidentEdge(v, k);
+                int other = (actual.edgeSource(e) == v ? actual.edgeDest(e) : actual.edgeSource(e));
+                check(actual.edgeSource(e) == v || actual.edgeDest(e) == v, name + ": edge " + e + " not at " + v);
+                check(actual.neighbor(v, k) == other, name + ": neighbor " + k + " of " + v);
+                seen[e]++;
+            }
+        }
+        for (int e = 0; e < seen.length; e++) check(seen[e] == 2, name + ": edge " + e + " seen " + seen[e] + " times");
+    }
+
+    private static Set<Long> pairs(IAdjacency graph) {
+        Set<Long> pairs = new HashSet<>();
+        for (int e = 0; e < graph.edgeCardinality(); e++) {
+            int u = Math.min(graph.edgeSource(e), graph.edgeDest(e));
+            int v = Math.max(graph.edgeSource(e), graph.edgeDest(e));
+            pairs.add((long) u * graph.upperBound() + v);
+        }
+        return pairs;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,124 @@
+import Graph.CsrGraph;
+import Graph.EdgeTable;
+import Graph.IAdjacency;
+import GraphClasses.ErdosRenyi;
+import GraphClasses.Grid;
+import MSTAlgorithms.BoruvkaMSTAlgorithm;
+import MSTAlgorithms.FilterKruskalMSTAlgorithm;
+import MSTAlgorithms.IMSTAlgorithm;
+import MSTAlgorithms.KruskalMSTAlgorithm;
+import Utilities.RandomWeightAssigner;
+import Utilities.WeightDistribution;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kruskal, Filter-Kruskal and Boruvka on connected random graphs and grids, with
+ * continuous weights and with integer weights full of ties (down to all equal):
+ * each must return a spanning tree, minimum: no edge outside the tree is lighter
+ * than the heaviest tree edge on the path between its extremities, and with the
+ * same weights as the others (all minimum spanning trees share their sorted
+ * weights, which unlike the sums do not depend on the order of the additions).
+ * The larger graphs have more edges than the range Filter-Kruskal sorts directly,
+ * so its filtering is exercised.
+ * Run with: make test
+ */
+public class MSTAlgorithmsTest {
+
+    public static void main(String[] args) {
+        IMSTAlgorithm[] algorithms = {
+                new KruskalMSTAlgorithm(), new FilterKruskalMSTAlgorithm(), new BoruvkaMSTAlgorithm()};
+        WeightDistribution[] distributions = {
+                WeightDistribution.uniform(), WeightDistribution.integer(3), WeightDistribution.integer(1)};
+        String[] distributionNames = {"uniform", "integer(3)", "integer(1)"};
+
+        for (int d = 0; d < distributions.length; d++) {
+            RandomWeightAssigner assigner = new RandomWeightAssigner(distributions[d], d);
+            List<IAdjacency> graphs = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (int order : new int[] {2, 50, 600, 1200}) {
+                EdgeTable edges = ErdosRenyi.sampleConnected(order, Math.min(1, 10.0 / order), order);
+                assigner.assignRandomWeights(edges);
+                graphs.add(new CsrGraph(order, edges));
+                names.add("G(" + order + ",p)");
+            }
+            Grid grid = new Grid(30, 20);
+            assigner.assignRandomWeights(grid.graph);
+            graphs.add(CsrGraph.fromGraph(grid.graph));
+            names.add("grid 30x20");
+
+            for (int g = 0; g < graphs.size(); g++) {
+                IAdjacency graph = graphs.get(g);
+                double[] expected = null;
+                for (IMSTAlgorithm algorithm : algorithms) {
+                    String name = algorithm.getClass().getSimpleName() + " on " + names.get(g)
+                            + " with " + distributionNames[d] + " weights";
+                    int[] tree = algorithm.computeMSTEdgeIds(graph);
+                    double[] weights = checkMinimumSpanningTree(graph, tree, name);
+                    if (expected == null) expected = weights;
+                    check(Arrays.equals(weights, expected), name + ": not the weights of the other trees");
+                }
+            }
+        }
+        System.out.println("MSTAlgorithmsTest: OK");
+    }
+
+    /**
+     * @return the sorted weights of the tree, once checked to be a minimum spanning tree of graph
+     */
+    private static double[] checkMinimumSpanningTree(IAdjacency graph, int[] tree, String name) {
+        int n = graph.order();
+        check(tree.length == n - 1, name + ": " + tree.length + " edges for " + n + " vertices");
+
+        boolean[] inTree = new boolean[graph.edgeCardinality()];
+        List<List<Integer>> treeEdges = new ArrayList<>();
+        for (int v = 0; v < n; v++) treeEdges.add(new ArrayList<>());
+        double[] weights = new double[tree.length];
+        for (int i = 0; i < tree.length; i++) {
+            int e = tree[i];
+            check(!inTree[e], name + ": edge " + e + " twice");
+            inTree[e] = true;
+            treeEdges.get(graph.edgeSource(e)).add(e);
+            treeEdges.get(graph.edgeDest(e)).add(e);
+            weights[i] = graph.edgeWeight(e);
+        }
+
+        // heaviest tree edge on the path from each vertex to every other one
+        double[] heaviest = new double[n];
+        int[] seen = new int[n];
+        Arrays.fill(seen, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int from = 0; from < n; from++) {
+            heaviest[from] = Double.NEGATIVE_INFINITY;
+            seen[from] = from;
+            queue.add(from);
+            int reached = 1;
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                for (int e : treeEdges.get(u)) {
+                    int v = (graph.edgeSource(e) == u ? graph.edgeDest(e) : graph.edgeSource(e));
+                    if (seen[v] == from) continue;
+                    seen[v] = from;
+                    heaviest[v] = Math.max(heaviest[u], graph.edgeWeight(e));
+                    queue.add(v);
+                    reached++;
+                }
+            }
+            check(reached == n, name + ": the tree does not span the graph");
+            for (int k = 0; k < graph.degree(from); k++) {
+                int e = graph.incidentEdge(from, k);
+                check(inTree[e] || graph.edgeWeight(e) >= heaviest[graph.neighbor(from, k)],
+                        name + ": edge " + e + " is lighter than the tree path it closes");
+            }
+        }
+        Arrays.sort(weights);
+        return weights;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,93 @@
+import Graph.CsrGraph;
+import Graph.EdgeTable;
+import Graph.IAdjacency;
+import Graph.MappedCsrGraph;
+import Graph.WeightColumn;
+import Utilities.EdgeListImporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Round trips of a random weighted multigraph through the graph file format:
+ * written by MappedCsrGraph.write, and converted from a text edge list by
+ * EdgeListImporter.importToFile (through CsrFileBuilder). Once mapped back, both
+ * files, and the edge list read on the heap, must be the graph itself: same edges,
+ * weights, and adjacency slots in the same order.
+ * Run with: make test
+ */
+public class MappedCsrGraphTest {
+
+    public static void main(String[] args) throws IOException {
+        int n = 300;
+        int m = 2000;
+        Random rng = new Random(5);
+        EdgeTable edges = new EdgeTable(m, WeightColumn.doubles(m));
+        while (edges.size() < m) {
+            int u = rng.nextInt(n);
+            int v = rng.nextInt(n);
+            if (u != v) edges.add(u, v, rng.nextInt(3) == 0 ? rng.nextInt(100) : rng.nextDouble() * 1e6 - 5e5);
+        }
+        edges.add(n - 2, n - 1, 0.5); // so that the largest vertex of the edge list is n-1
+        CsrGraph graph = new CsrGraph(n, edges);
+
+        Path text = Files.createTempFile("edges", ".txt");
+        Path written = Files.createTempFile("written", ".csr");
+        Path imported = Files.createTempFile("imported", ".csr");
+        try {
+            // 1-based, with comments, a self-loop and mixed separators
+            StringBuilder lines = new StringBuilder("# test graph\n% another comment\n\n5 5 1.0\n");
+            for (int e = 0; e < graph.edgeCardinality(); e++) {
+                String separator = (e % 3 == 0 ? "\t" : e % 3 == 1 ? " " : ", ");
+                lines.append(graph.edgeSource(e) + 1).append(separator)
+                     .append(graph.edgeDest(e) + 1).append(separator)
+                     .append(graph.edgeWeight(e)).append(e % 2 == 0 ? "\n" : "\r\n");
+            }
+            Files.writeString(text, lines);
+
+            MappedCsrGraph.write(graph, true, written);
+            checkSame(graph, MappedCsrGraph.open(written), true, "write");
+
+            EdgeListImporter importer = new EdgeListImporter(true, 1);
+            importer.importToFile(text, imported);
+            checkSame(graph, MappedCsrGraph.open(imported), true, "importToFile");
+            checkSame(graph, importer.importGraph(text), true, "importGraph");
+
+            new EdgeListImporter(false, 1).importToFile(text, imported);
+            MappedCsrGraph unweighted = MappedCsrGraph.open(imported);
+            check(!unweighted.hasWeights(), "unweighted import has weights");
+            checkSame(graph, unweighted, false, "unweighted importToFile");
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(written);
+            Files.deleteIfExists(imported);
+        }
+        System.out.println("MappedCsrGraphTest: OK");
+    }
+
+    private static void checkSame(IAdjacency expected, IAdjacency actual, boolean weighted, String how) {
+        check(actual.upperBound() == expected.upperBound(), how + ": upper bound " + actual.upperBound());
+        check(actual.order() == expected.order(), how + ": order");
+        check(actual.edgeCardinality() == expected.edgeCardinality(), how + ": " + actual.edgeCardinality() + " edges");
+        for (int e = 0; e < expected.edgeCardinality(); e++) {
+            check(actual.edgeSource(e) == expected.edgeSource(e) && actual.edgeDest(e) == expected.edgeDest(e),
+                    how + ": extremities of edge " + e);
+            double weight = weighted ? expected.edgeWeight(e) : 0;
+            check(actual.edgeWeight(e) == weight, how + ": weight of edge " + e);
+        }
+        for (int v = 0; v < expected.upperBound(); v++) {
+            check(actual.isVertex(v), how + ": vertex " + v);
+            check(actual.degree(v) == expected.degree(v), how + ": degree of " + v);
+            for (int k = 0; k < expected.degree(v); k++) {
+                check(actual.neighbor(v, k) == expected.neighbor(v, k)
+                        && actual.incidentEdge(v, k) == expected.incidentEdge(v, k), how + ": slot " + k + " of " + v);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,50 @@
+import Graph.CsrGraph;
+import GraphClasses.Grid;
+import RandomTreeAlgos.FrontierPolicy;
+import RandomTreeAlgos.RandomTraversalGenerator;
+import RandomTreeAlgos.TreeSampler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every frontier policy must give random trees, not only a random start vertex:
+ * on a grid, seeds whose traversals start at the same vertex give different trees,
+ * and the same seed always gives the same tree.
+ * Run with: make test
+ */
+public class RandomTraversalGeneratorTest {
+
+    public static void main(String[] args) {
+        CsrGraph grid = CsrGraph.fromGraph(new Grid(10, 10).graph);
+        int n = grid.upperBound();
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        for (FrontierPolicy policy : FrontierPolicy.values()) {
+            Map<Integer, int[]> treeOfStart = new HashMap<>();
+            int sameStart = 0;
+            int different = 0;
+            for (long seed = 1; seed <= 200; seed++) {
+                int start = new RandomTraversalGenerator(policy, seed).sampleTree(grid, parent, parentEdge);
+                int[] tree = TreeSampler.treeEdgeIds(parentEdge, n);
+                check(tree.length == grid.order() - 1, policy + ": not a spanning tree");
+                int[] previous = treeOfStart.putIfAbsent(start, tree);
+                if (previous == null) continue;
+                sameStart++;
+                if (!Arrays.equals(previous, tree)) different++;
+            }
+            check(sameStart > 0, policy + ": no two seeds started at the same vertex");
+            check(different > 0, policy + ": the tree only depends on the start vertex");
+
+            int[] first = new RandomTraversalGenerator(policy, 7).generateSpanningTreeEdgeIds(grid);
+            int[] again = new RandomTraversalGenerator(policy, 7).generateSpanningTreeEdgeIds(grid);
+            check(Arrays.equals(first, again), policy + ": same seed, different trees");
+        }
+        System.out.println("RandomTraversalGeneratorTest: OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
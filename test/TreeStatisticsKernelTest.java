@@ -0,0 +1,178 @@
+import Graph.CsrGraph;
+import Graph.EdgeTable;
+import Graph.IAdjacency;
+import Graph.RootedTree;
+import Graph.TreeStatistics;
+import Graph.TreeStatisticsKernel;
+import Graph.WeightColumn;
+import GraphClasses.Complete;
+import GraphClasses.Grid;
+import GraphClasses.Lollipop;
+import RandomTreeAlgos.TreeSampler;
+import RandomTreeAlgos.WilsonGenerator;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * TreeStatisticsKernel must give the invariants of RootedTree built on the same
+ * tree and root, center included when the tree has two, on random spanning trees
+ * of grids, complete graphs and lollipops, on random recursive trees, and on paths
+ * and stars rooted anywhere. Radius, diameter and Wiener index are also checked
+ * against the distances between all pairs of vertices. A single kernel serves every
+ * tree, small and large, so its scratch arrays are reused.
+ * Run with: make test
+ */
+public class TreeStatisticsKernelTest {
+
+    private static final TreeStatisticsKernel kernel = new TreeStatisticsKernel();
+
+    public static void main(String[] args) {
+        WilsonGenerator wilson = new WilsonGenerator(3);
+        IAdjacency[] graphs = {
+                CsrGraph.fromGraph(new Grid(1, 1).graph), CsrGraph.fromGraph(new Grid(1, 10).graph),
+                CsrGraph.fromGraph(new Grid(11, 1).graph), CsrGraph.fromGraph(new Grid(30, 30).graph),
+                CsrGraph.fromGraph(new Grid(2, 5).graph), CsrGraph.fromGraph(new Complete(50).graph),
+                CsrGraph.fromGraph(new Lollipop(60, new Random(4)).graph)};
+        for (IAdjacency graph : graphs) {
+            for (int sample = 0; sample < 20; sample++) {
+                int[] parent = new int[graph.upperBound()];
+                int[] parentEdge = new int[graph.upperBound()];
+                int root = wilson.sampleTree(graph, parent, parentEdge);
+                checkTree(graph, parent, parentEdge, root, "spanning tree of " + graph.order() + " vertices");
+            }
+        }
+
+        Random rng = new Random(5);
+        for (int sample = 0; sample < 200; sample++) {
+            int n = 1 + rng.nextInt(150);
+            int[] label = shuffled(n, rng);
+            int[] parentLabel = new int[n];
+            for (int i = 1; i < n; i++) parentLabel[i] = label[rng.nextInt(i)];
+            checkTree(n, label, parentLabel, label[rng.nextInt(n)], "random recursive tree " + sample);
+        }
+        for (int n = 1; n <= 12; n++) {
+            int[] path = new int[n];
+            int[] previous = new int[n];
+            int[] center = new int[n];
+            for (int i = 0; i < n; i++) {
+                path[i] = i;
+                previous[i] = Math.max(i - 1, 0);
+            }
+            for (int root = 0; root < n; root++) {
+                checkTree(n, path, previous, root, "path of " + n + " rooted at " + root);
+                checkTree(n, path, center, root, "star of " + n + " rooted at " + root);
+            }
+        }
+        System.out.println("TreeStatisticsKernelTest: OK");
+    }
+
+    /**
+     * Checks the tree on vertices 0 .. n-1 whose edges are {vertex[i], neighbor[i]}
+     * for i = 1 .. n-1, rooted at root.
+     */
+    private static void checkTree(int n, int[] vertex, int[] neighbor, int root, String name) {
+        EdgeTable edges = new EdgeTable(n, WeightColumn.none());
+        for (int i = 1; i < n; i++) edges.add(vertex[i], neighbor[i]);
+        CsrGraph tree = new CsrGraph(n, edges);
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        Arrays.fill(parent, -1);
+        Arrays.fill(parentEdge, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int k = 0; k < tree.degree(u); k++) {
+                int v = tree.neighbor(u, k);
+                if (v == root || parent[v] >= 0) continue;
+                parent[v] = u;
+                parentEdge[v] = tree.incidentEdge(u, k);
+                queue.add(v);
+            }
+        }
+        checkTree(tree, parent, parentEdge, root, name);
+    }
+
+    private static void checkTree(IAdjacency graph, int[] parent, int[] parentEdge, int root, String name) {
+        int n = graph.order();
+        TreeStatistics statistics = kernel.compute(parent, root, graph.upperBound());
+        RootedTree expected = new RootedTree(graph, TreeSampler.treeEdgeIds(parentEdge, graph.upperBound()), root);
+
+        check(statistics.getOrder() == n, name + ": order " + statistics.getOrder());
+        check(statistics.getCenter() == expected.getRoot(), name + ": center " + statistics.getCenter()
+                + " instead of " + expected.getRoot());
+        check(statistics.getRadius() == expected.getRadius(), name + ": radius");
+        check(statistics.getDiameter() == expected.getDiameter(), name + ": diameter");
+        check(statistics.getWienerIndex() == expected.getWienerIndex(), name + ": Wiener index");
+        check(Math.abs(statistics.getAverageEccentricity() - expected.getAverageEccentricity()) < 1e-9,
+                name + ": average eccentricity");
+        for (int maxDegree : new int[] {0, 3, n}) {
+            check(Arrays.equals(statistics.getDegreeDistribution(maxDegree), expected.getDegreeDistribution(maxDegree)),
+                    name + ": degree distribution up to " + maxDegree);
+        }
+
+        // distances between all pairs, along the tree edges
+        int[] neighborCount = new int[graph.upperBound()];
+        int[][] neighbors = new int[graph.upperBound()][];
+        for (int v = 0; v < graph.upperBound(); v++) {
+            if (parent[v] >= 0) {
+                neighborCount[v]++;
+                neighborCount[parent[v]]++;
+            }
+        }
+        for (int v = 0; v < graph.upperBound(); v++) neighbors[v] = new int[neighborCount[v]];
+        Arrays.fill(neighborCount, 0);
+        for (int v = 0; v < graph.upperBound(); v++) {
+            if (parent[v] >= 0) {
+                neighbors[v][neighborCount[v]++] = parent[v];
+                neighbors[parent[v]][neighborCount[parent[v]]++] = v;
+            }
+        }
+        int radius = Integer.MAX_VALUE;
+        int diameter = 0;
+        long distanceSum = 0;
+        int[] distance = new int[graph.upperBound()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int from = 0; from < graph.upperBound(); from++) {
+            if (from != root && parent[from] < 0) continue;
+            Arrays.fill(distance, -1);
+            distance[from] = 0;
+            queue.add(from);
+            int eccentricity = 0;
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                eccentricity = Math.max(eccentricity, distance[u]);
+                distanceSum += distance[u];
+                for (int v : neighbors[u]) {
+                    if (distance[v] >= 0) continue;
+                    distance[v] = distance[u] + 1;
+                    queue.add(v);
+                }
+            }
+            if (from == statistics.getCenter()) check(eccentricity == statistics.getRadius(), name + ": not a center");
+            radius = Math.min(radius, eccentricity);
+            diameter = Math.max(diameter, eccentricity);
+        }
+        check(statistics.getRadius() == radius, name + ": radius " + statistics.getRadius() + " instead of " + radius);
+        check(statistics.getDiameter() == diameter, name + ": diameter " + statistics.getDiameter() + " instead of " + diameter);
+        check(statistics.getWienerIndex() == distanceSum / 2, name + ": Wiener index " + statistics.getWienerIndex());
+    }
+
+    private static int[] shuffled(int n, Random rng) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) permutation[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        return permutation;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}